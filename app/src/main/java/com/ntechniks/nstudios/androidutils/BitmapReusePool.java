@@ -0,0 +1,214 @@
+package com.ntechniks.nstudios.androidutils;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Pool of reusable {@link Bitmap}s, bucketed by size and config, and bounded by a byte budget.
+ * The decode, water-mark, and save utilities can take their bitmaps from the pool, e.g. as
+ * {@link android.graphics.BitmapFactory.Options#inBitmap} or as water-mark targets, and give them
+ * back when done, so a batch of photos does not allocate a new bitmap per photo. The least
+ * recently used bitmaps are evicted when the budget is exceeded, and when the system asks the
+ * application to trim its memory.
+ * <p>
+ * The pool is backed by the bucketed pool of Glide, which is already used by the library to
+ * load images. All the methods are thread safe.
+ *
+ * @author Nikola Georgiev
+ * @version 1.0
+ * @since 1.3.0
+ */
+public final class BitmapReusePool implements ComponentCallbacks2 {
+
+    public static final String TAG = BitmapReusePool.class.getSimpleName();
+
+    /**
+     * The part of the maximum heap used by the shared pool, see {@link #get(Context)}.
+     *
+     * @since 1.3.0
+     */
+    public static final int SHARED_POOL_HEAP_DIVIDER = 8;
+
+    private static volatile BitmapReusePool sShared;
+
+    private final LruBitmapPool mPool;
+
+    /**
+     * Creates new pool. The pool does not receive the memory callbacks of the system, unless it
+     * is registered, see {@link Context#registerComponentCallbacks(android.content.ComponentCallbacks)}.
+     *
+     * @param maxSizeBytes {@link long} - The maximum amount of bytes of all the pooled bitmaps.
+     * @throws IllegalArgumentException - In case the maxSizeBytes is not positive.
+     * @since 1.3.0
+     */
+    public BitmapReusePool(final long maxSizeBytes) {
+
+        Validate.isTrue(maxSizeBytes > 0, "The maxSizeBytes should be positive.");
+        mPool = new LruBitmapPool(maxSizeBytes);
+    }
+
+    /**
+     * Gets the pool shared by the whole application, created with the first call. The shared
+     * pool takes up to 1/{@link #SHARED_POOL_HEAP_DIVIDER} of the maximum heap, and is trimmed
+     * on the memory callbacks of the system.
+     *
+     * @param context {@link Context} - Any context, the application context is used to receive
+     *                the memory callbacks.
+     * @return {@link BitmapReusePool} - The shared pool.
+     * @throws IllegalArgumentException - In case the context is null.
+     * @since 1.3.0
+     */
+    @NonNull
+    public static BitmapReusePool get(@NonNull final Context context) {
+
+        Validate.notNull(context, "The context should be valid object.");
+
+        BitmapReusePool pool = sShared;
+        if (pool == null) {
+            synchronized (BitmapReusePool.class) {
+                pool = sShared;
+                if (pool == null) {
+                    pool = new BitmapReusePool(Runtime.getRuntime().maxMemory() / SHARED_POOL_HEAP_DIVIDER);
+                    context.getApplicationContext().registerComponentCallbacks(pool);
+                    sShared = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Takes a bitmap with the given size and config, erased to transparent. A new bitmap is
+     * created when the pool has no such bitmap.
+     *
+     * @param width  {@link int} - The width of the bitmap.
+     * @param height {@link int} - The height of the bitmap.
+     * @param config {@link Bitmap.Config} - The config of the bitmap.
+     * @return {@link Bitmap} - Mutable bitmap, owned by the caller until it is given back.
+     * @since 1.3.0
+     */
+    @NonNull
+    public Bitmap get(final int width, final int height, @NonNull final Bitmap.Config config) {
+        return mPool.get(width, height, config);
+    }
+
+    /**
+     * Takes a bitmap with the given size and config, keeping its previous content. Faster than
+     * {@link #get(int, int, Bitmap.Config)}, when all the pixels will be overwritten anyway, e.g.
+     * by a decoder or by an opaque copy. A new bitmap is created when the pool has no such bitmap.
+     *
+     * @param width  {@link int} - The width of the bitmap.
+     * @param height {@link int} - The height of the bitmap.
+     * @param config {@link Bitmap.Config} - The config of the bitmap.
+     * @return {@link Bitmap} - Mutable bitmap, owned by the caller until it is given back.
+     * @since 1.3.0
+     */
+    @NonNull
+    public Bitmap getDirty(final int width, final int height, @NonNull final Bitmap.Config config) {
+        return mPool.getDirty(width, height, config);
+    }
+
+    /**
+     * Gives a bitmap back to the pool. The bitmap should not be used after the call. Bitmaps
+     * which cannot be pooled, e.g. immutable or too big bitmaps, are recycled.
+     *
+     * @param bitmap {@link Bitmap} - The bitmap to give back. Null-safe.
+     * @since 1.3.0
+     */
+    public void put(@Nullable final Bitmap bitmap) {
+
+        if (bitmap != null && !bitmap.isRecycled()) {
+            mPool.put(bitmap);
+        }
+    }
+
+    /**
+     * @return {@link long} - The amount of bitmaps taken from the pool.
+     * @since 1.3.0
+     */
+    public long getHitCount() {
+        return mPool.hitCount();
+    }
+
+    /**
+     * @return {@link long} - The amount of bitmaps created because the pool had no such bitmap.
+     * @since 1.3.0
+     */
+    public long getMissCount() {
+        return mPool.missCount();
+    }
+
+    /**
+     * @return {@link long} - The amount of bitmaps evicted from the pool.
+     * @since 1.3.0
+     */
+    public long getEvictionCount() {
+        return mPool.evictionCount();
+    }
+
+    /**
+     * @return {@link float} - The part of the requests served from the pool, between 0 and 1.
+     * @since 1.3.0
+     */
+    public float getHitRate() {
+
+        final long hits = mPool.hitCount();
+        final long requests = hits + mPool.missCount();
+        return (requests > 0) ? (float) hits / requests : 0F;
+    }
+
+    /**
+     * @return {@link long} - The amount of bytes of all the pooled bitmaps.
+     * @since 1.3.0
+     */
+    public long getCurrentSize() {
+        return mPool.getCurrentSize();
+    }
+
+    /**
+     * @return {@link long} - The maximum amount of bytes of all the pooled bitmaps.
+     * @since 1.3.0
+     */
+    public long getMaxSize() {
+        return mPool.getMaxSize();
+    }
+
+    /**
+     * Evicts all the pooled bitmaps.
+     *
+     * @since 1.3.0
+     */
+    public void clear() {
+        mPool.clearMemory();
+    }
+
+    @Override
+    public void onTrimMemory(final int level) {
+        mPool.trimMemory(level);
+    }
+
+    @Override
+    public void onLowMemory() {
+        mPool.clearMemory();
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull final Configuration newConfig) {
+        // Nothing to implement here.
+    }
+
+    @Override
+    public String toString() {
+        return "BitmapReusePool{hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions="
+                + getEvictionCount() + ", size=" + getCurrentSize() + '/' + getMaxSize() + '}';
+    }
+}
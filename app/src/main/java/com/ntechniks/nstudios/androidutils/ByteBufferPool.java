@@ -0,0 +1,217 @@
+package com.ntechniks.nstudios.androidutils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.apache.commons.lang3.Validate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe pool of heap {@link ByteBuffer}s, used by the file copy loops. The copied streams
+ * can read only into arrays, so the buffers are backed by an accessible array, which the streams
+ * fill without any intermediate copy. The buffers are grouped in power of two size classes
+ * between {@link #MIN_BUFFER_SIZE} and {@link #MAX_BUFFER_SIZE}, and each class keeps only a
+ * limited amount of idle buffers, so the pool never holds more than a few megabytes.
+ * <p>
+ * The size of the buffer for a given copy is picked by {@link #sizeFor(long)}, based on the
+ * known content length, or on the {@link InputStream#available()} hint of the source stream.
+ *
+ * @author Nikola Georgiev
+ * @version 1.0
+ * @since 1.3.0
+ */
+public final class ByteBufferPool {
+
+    public static final String TAG = ByteBufferPool.class.getSimpleName();
+
+    /**
+     * The capacity of the smallest size class.
+     *
+     * @since 1.3.0
+     */
+    public static final int MIN_BUFFER_SIZE = 8 * 1024;
+    /**
+     * The capacity of the biggest size class.
+     *
+     * @since 1.3.0
+     */
+    public static final int MAX_BUFFER_SIZE = 512 * 1024;
+    /**
+     * The capacity used when nothing is known about the size of the content.
+     *
+     * @since 1.3.0
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    /**
+     * The amount of idle buffers kept per size class by the shared pool.
+     *
+     * @since 1.3.0
+     */
+    public static final int DEFAULT_BUFFERS_PER_CLASS = 4;
+
+    private static final int MIN_SIZE_SHIFT = Integer.numberOfTrailingZeros(MIN_BUFFER_SIZE);
+    private static final int SIZE_CLASSES_COUNT =
+            Integer.numberOfTrailingZeros(MAX_BUFFER_SIZE) - MIN_SIZE_SHIFT + 1;
+
+    private static final ByteBufferPool sShared = new ByteBufferPool(DEFAULT_BUFFERS_PER_CLASS);
+
+    private final int mBuffersPerClass;
+    private final Queue<ByteBuffer>[] mIdleBuffers;
+    private final AtomicInteger[] mIdleCounts;
+
+    /**
+     * Creates new pool instance.
+     *
+     * @param buffersPerClass {@link int} - The maximum amount of idle buffers kept per size class.
+     * @throws IllegalArgumentException - In case the buffersPerClass is negative.
+     * @since 1.3.0
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ByteBufferPool(final int buffersPerClass) {
+
+        Validate.isTrue(buffersPerClass >= 0, "The buffersPerClass should not be negative.");
+
+        mBuffersPerClass = buffersPerClass;
+        mIdleBuffers = new Queue[SIZE_CLASSES_COUNT];
+        mIdleCounts = new AtomicInteger[SIZE_CLASSES_COUNT];
+        for (int i = 0; i < SIZE_CLASSES_COUNT; i++) {
+            mIdleBuffers[i] = new ConcurrentLinkedQueue<>();
+            mIdleCounts[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Returns the pool shared by all the file utilities in the library.
+     *
+     * @return {@link ByteBufferPool} - The shared pool instance.
+     * @since 1.3.0
+     */
+    @NonNull
+    public static ByteBufferPool shared() {
+        return sShared;
+    }
+
+    /**
+     * Picks buffer size for a content with the given length. The result is the smallest size
+     * class which fits the whole content, limited between {@link #MIN_BUFFER_SIZE} and
+     * {@link #MAX_BUFFER_SIZE}.
+     *
+     * @param contentLength {@link long} - The expected content length in bytes. Zero or
+     *                      negative value means that the length is unknown.
+     * @return {@link int} - The buffer size in bytes.
+     * @since 1.3.0
+     */
+    public static int sizeFor(final long contentLength) {
+
+        if (contentLength <= 0) {
+            return DEFAULT_BUFFER_SIZE;
+        }
+        if (contentLength >= MAX_BUFFER_SIZE) {
+            return MAX_BUFFER_SIZE;
+        }
+        final int size = Integer.highestOneBit((int) contentLength - 1) << 1;
+        return Math.max(size, MIN_BUFFER_SIZE);
+    }
+
+    /**
+     * Picks buffer size for the content of the given stream, based on its
+     * {@link InputStream#available()} hint. Streams like {@link java.util.zip.ZipInputStream}
+     * report only 0 or 1, which carries no size information, so the default size is used for
+     * them.
+     *
+     * @param inputStream {@link InputStream} - The stream which will be copied. Null-safe.
+     * @return {@link int} - The buffer size in bytes.
+     * @since 1.3.0
+     */
+    public static int sizeFor(@Nullable final InputStream inputStream) {
+
+        if (inputStream == null) {
+            return DEFAULT_BUFFER_SIZE;
+        }
+        try {
+            final int available = inputStream.available();
+            return (available > 1) ? sizeFor(available) : DEFAULT_BUFFER_SIZE;
+        } catch (final IOException ioe) {
+            return DEFAULT_BUFFER_SIZE;
+        }
+    }
+
+    /**
+     * Takes a cleared heap buffer with at least the requested capacity. An idle buffer of the
+     * matching size class is reused when available, otherwise a new one is allocated. The
+     * buffer should be given back with {@link #release(ByteBuffer)} when no longer used.
+     *
+     * @param minCapacity {@link int} - The minimum capacity of the buffer in bytes. It is rounded
+     *                    up to the next size class and limited to {@link #MAX_BUFFER_SIZE}.
+     * @return {@link ByteBuffer} - A cleared buffer, backed by an accessible array.
+     * @since 1.3.0
+     */
+    @NonNull
+    public ByteBuffer acquire(final int minCapacity) {
+
+        final int sizeClass = sizeClassOf(sizeFor(minCapacity));
+        final ByteBuffer buffer = mIdleBuffers[sizeClass].poll();
+        if (buffer == null) {
+            return ByteBuffer.allocate(MIN_BUFFER_SIZE << sizeClass);
+        }
+        mIdleCounts[sizeClass].decrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * Gives a buffer back to the pool. Buffers which are not backed by an accessible array, which
+     * capacity does not match any size class, or which class is already full, are left to the
+     * garbage collector.
+     *
+     * @param buffer {@link ByteBuffer} - The buffer which is no longer used. Null-safe.
+     * @since 1.3.0
+     */
+    public void release(@Nullable final ByteBuffer buffer) {
+
+        if (buffer == null || !buffer.hasArray() || buffer.arrayOffset() != 0) {
+            return;
+        }
+        final int capacity = buffer.capacity();
+        if (Integer.bitCount(capacity) != 1 || capacity < MIN_BUFFER_SIZE || capacity > MAX_BUFFER_SIZE) {
+            return;
+        }
+        final int sizeClass = sizeClassOf(capacity);
+        if (mIdleCounts[sizeClass].incrementAndGet() <= mBuffersPerClass) {
+            buffer.clear();
+            mIdleBuffers[sizeClass].offer(buffer);
+        } else {
+            mIdleCounts[sizeClass].decrementAndGet();
+        }
+    }
+
+    /**
+     * Drops all the idle buffers kept by the pool.
+     *
+     * @since 1.3.0
+     */
+    public void clear() {
+
+        for (int i = 0; i < SIZE_CLASSES_COUNT; i++) {
+            while (mIdleBuffers[i].poll() != null) {
+                mIdleCounts[i].decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Gets the index of the size class for a power of two buffer size.
+     *
+     * @param size {@link int} - The buffer size, between the min and the max buffer size.
+     * @return {@link int} - The index of the size class.
+     * @since 1.3.0
+     */
+    private static int sizeClassOf(final int size) {
+        return Integer.numberOfTrailingZeros(size) - MIN_SIZE_SHIFT;
+    }
+}
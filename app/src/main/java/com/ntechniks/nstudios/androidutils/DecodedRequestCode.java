@@ -0,0 +1,78 @@
+package com.ntechniks.nstudios.androidutils;
+
+/**
+ * Reusable holder of the values decoded from a request code by
+ * {@link ReferenceEncodeUtils#decode(int, DecodedRequestCode)}. A single instance can be
+ * filled again and again, so decoding many codes does not allocate anything. The holder is not
+ * thread-safe, it should be used by a single thread at a time.
+ *
+ * @author Nikola Georgiev
+ * @version 1.0
+ * @since 1.3.0
+ */
+public final class DecodedRequestCode {
+
+    private int mItemIndex = -1;
+    private int mPageId = -1;
+    private int mTotalCount = -1;
+
+    /**
+     * Creates new empty holder.
+     *
+     * @since 1.3.0
+     */
+    public DecodedRequestCode() {
+        // Nothing to implement here.
+    }
+
+    /**
+     * Sets the decoded values, or -1 for all of them in case the code is not valid.
+     *
+     * @param itemIndex  {@link int} - The list item index.
+     * @param pageId     {@link int} - The page number.
+     * @param totalCount {@link int} - The total pages count.
+     * @since 1.3.0
+     */
+    void set(final int itemIndex, final int pageId, final int totalCount) {
+        mItemIndex = itemIndex;
+        mPageId = pageId;
+        mTotalCount = totalCount;
+    }
+
+    /**
+     * @return {@link boolean} - True if the last decoded code was valid.
+     * @since 1.3.0
+     */
+    public boolean isValid() {
+        return mPageId >= 0;
+    }
+
+    /**
+     * @return {@link int} - The list item index, or -1 if the last decoded code was not valid.
+     * @since 1.3.0
+     */
+    public int getItemIndex() {
+        return mItemIndex;
+    }
+
+    /**
+     * @return {@link int} - The page number, or -1 if the last decoded code was not valid.
+     * @since 1.3.0
+     */
+    public int getPageId() {
+        return mPageId;
+    }
+
+    /**
+     * @return {@link int} - The total pages count, or -1 if the last decoded code was not valid.
+     * @since 1.3.0
+     */
+    public int getTotalCount() {
+        return mTotalCount;
+    }
+
+    @Override
+    public String toString() {
+        return "DecodedRequestCode{index=" + mItemIndex + ", page=" + mPageId + ", count=" + mTotalCount + '}';
+    }
+}
@@ -0,0 +1,309 @@
+package com.ntechniks.nstudios.androidutils;
+
+import android.os.ParcelFileDescriptor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.apache.commons.lang3.Validate;
+
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Channel based engine used to persist {@link InputStream}s into files. Depending on the source
+ * it picks the cheapest available copy strategy:
+ * <ul>
+ * <li>{@link FileInputStream} - the data is moved with {@link FileChannel#transferTo}, so the
+ * kernel can copy it without passing through the Java heap.</li>
+ * <li>{@link ReadableByteChannel} - the data is moved with {@link FileChannel#transferFrom}.</li>
+ * <li>Any other stream - the data is read straight into the array of a heap {@link ByteBuffer},
+ * taken from the {@link ByteBufferPool}, and written from it into the file.</li>
+ * </ul>
+ *
+ * @author Nikola Georgiev
+ * @version 1.0
+ * @since 1.3.0
+ */
+public final class FileSaveEngine {
+
+    public static final String TAG = FileSaveEngine.class.getSimpleName();
+
+    /**
+     * Content length value, which means that the length of the content is not known.
+     *
+     * @since 1.3.0
+     */
+    public static final long UNKNOWN_LENGTH = -1;
+
+    /**
+     * The maximum amount of bytes moved by a single transfer call. Some kernels refuse to
+     * transfer more than 2GB at once, so the transfers are split into chunks.
+     *
+     * @since 1.3.0
+     */
+    private static final long TRANSFER_CHUNK_SIZE = 8L * 1024 * 1024;
+
+    /**
+     * Main constructor with private accessor to prevent instantiating the class.
+     *
+     * @since 1.3.0
+     */
+    private FileSaveEngine() {
+        // Nothing to implement here.
+    }
+
+    /**
+     * Writes the whole content of the given input stream into the given file. The file will be
+     * truncated in case it already exists. The input stream is read until its end, but it is not
+     * closed.
+     *
+     * @param inputStream {@link InputStream} - The source of the data.
+     * @param file        {@link File} - The destination file.
+     * @return {@link long} - The amount of bytes written into the file.
+     * @throws IOException              - In case there was read/write problem during saving.
+     * @throws IllegalArgumentException - In case the inputStream or file is null.
+     * @since 1.3.0
+     */
+    public static long save(@NonNull final InputStream inputStream, @NonNull final File file) throws IOException {
+
+        return save(inputStream, file, UNKNOWN_LENGTH);
+    }
+
+    /**
+     * Writes the whole content of the given input stream into the given file. When the stream
+     * has to be copied through a buffer, the buffer is taken from the shared
+     * {@link ByteBufferPool} and sized according to the content length, or to the
+     * {@link InputStream#available()} hint when the length is unknown.
+     *
+     * @param inputStream   {@link InputStream} - The source of the data.
+     * @param file          {@link File} - The destination file.
+     * @param contentLength {@link long} - The expected content length in bytes, or
+     *                      {@link #UNKNOWN_LENGTH}.
+     * @return {@link long} - The amount of bytes written into the file.
+     * @throws IOException              - In case there was read/write problem during saving.
+     * @throws IllegalArgumentException - In case the inputStream or file is null.
+     * @since 1.3.0
+     */
+    public static long save(@NonNull final InputStream inputStream, @NonNull final File file,
+                            final long contentLength) throws IOException {
+
+        return saveImpl(inputStream, file, contentLength, null);
+    }
+
+    /**
+     * Writes the whole content of the given input stream into the given file, using a buffer
+     * owned by the caller. Use this method when many files are saved in a row, so a single
+     * buffer can be reused for all of them.
+     *
+     * @param inputStream {@link InputStream} - The source of the data.
+     * @param file        {@link File} - The destination file.
+     * @param buffer      {@link ByteBuffer} - The buffer used to copy the data. Its content is
+     *                    overwritten and it is left cleared. Buffers without an accessible array,
+     *                    e.g. direct buffers, are replaced by a pooled heap buffer of the same
+     *                    capacity, since a stream can read only into an array.
+     * @return {@link long} - The amount of bytes written into the file.
+     * @throws IOException              - In case there was read/write problem during saving.
+     * @throws IllegalArgumentException - In case the inputStream, file, or buffer is null, or the
+     *                                  buffer has no capacity.
+     * @since 1.3.0
+     */
+    public static long save(@NonNull final InputStream inputStream, @NonNull final File file,
+                            @NonNull final ByteBuffer buffer) throws IOException {
+
+        Validate.notNull(buffer, "The buffer should be valid object.");
+        Validate.isTrue(buffer.capacity() > 0, "The buffer should have capacity.");
+        return saveImpl(inputStream, file, UNKNOWN_LENGTH, buffer);
+    }
+
+    /**
+     * Writes a range of an open file into the given file, moving the data with
+     * {@link FileChannel#transferTo}. This is useful for resources packed in the APK, which are
+     * exposed as a range of the APK file through {@link android.content.res.AssetFileDescriptor}.
+     * The file descriptor is not closed.
+     *
+     * @param fd     {@link FileDescriptor} - The descriptor of the source file.
+     * @param offset {@link long} - The position of the first byte of the range.
+     * @param length {@link long} - The length of the range in bytes.
+     * @param file   {@link File} - The destination file.
+     * @return {@link long} - The amount of bytes written into the file.
+     * @throws IOException              - In case there was read/write problem during saving.
+     * @throws IllegalArgumentException - In case the fd or file is null, or the range is negative.
+     * @since 1.3.0
+     */
+    public static long save(@NonNull final FileDescriptor fd, final long offset, final long length,
+                            @NonNull final File file) throws IOException {
+
+        Validate.notNull(fd, "The fd should be valid object.");
+        Validate.notNull(file, "The file should be valid object.");
+        Validate.isTrue(offset >= 0 && length >= 0, "The offset and length should not be negative.");
+
+        // The stream is not closed on purpose, since it would close the given descriptor.
+        final FileChannel source = new FileInputStream(fd).getChannel();
+        try (final FileOutputStream fos = new FileOutputStream(file)) {
+
+            final FileChannel target = fos.getChannel();
+            final long end = offset + length;
+            long position = offset;
+            while (position < end) {
+                final long count = Math.min(TRANSFER_CHUNK_SIZE, end - position);
+                final long transferred = source.transferTo(position, count, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+            return position - offset;
+        }
+    }
+
+    private static long saveImpl(@NonNull final InputStream inputStream, @NonNull final File file,
+                                 final long contentLength,
+                                 @Nullable final ByteBuffer buffer) throws IOException {
+
+        Validate.notNull(inputStream, "The inputStream should be valid object.");
+        Validate.notNull(file, "The file should be valid object.");
+
+        try (final FileOutputStream fos = new FileOutputStream(file)) {
+
+            final FileChannel target = fos.getChannel();
+            if (isPlainFileStream(inputStream)) {
+                final FileChannel source = ((FileInputStream) inputStream).getChannel();
+                final long start = source.position();
+                if (source.size() > start) {
+                    return transferFromFile(source, start, target);
+                }
+                // Pipes and other special files report no size, so they are copied as streams.
+            } else if (inputStream instanceof ReadableByteChannel) {
+                return transferFromChannel((ReadableByteChannel) inputStream, target);
+            }
+
+            if (buffer != null && buffer.hasArray()) {
+                return copyBuffered(inputStream, target, buffer);
+            }
+            final ByteBufferPool pool = ByteBufferPool.shared();
+            final int bufferSize;
+            if (buffer != null) {
+                bufferSize = buffer.capacity();
+                buffer.clear();
+            } else if (contentLength > 0) {
+                bufferSize = ByteBufferPool.sizeFor(contentLength);
+            } else {
+                bufferSize = ByteBufferPool.sizeFor(inputStream);
+            }
+            final ByteBuffer pooled = pool.acquire(bufferSize);
+            try {
+                return copyBuffered(inputStream, target, pooled);
+            } finally {
+                pool.release(pooled);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the given stream reads a file straight through its file descriptor. Sub
+     * classes which limit the readable range (e.g. streams to assets packed in the APK) are not
+     * accepted, because their channel exposes the whole underlying file.
+     *
+     * @param inputStream {@link InputStream} - The stream which will be checked.
+     * @return {@link boolean} - True if the file channel of the stream can be used directly.
+     * @since 1.3.0
+     */
+    private static boolean isPlainFileStream(@NonNull final InputStream inputStream) {
+
+        final Class<?> type = inputStream.getClass();
+        return type == FileInputStream.class || type == ParcelFileDescriptor.AutoCloseInputStream.class;
+    }
+
+    /**
+     * Moves the remaining content of a file channel into the target channel. The position of the
+     * source channel is advanced, so the source stream behaves as it was read to its end.
+     *
+     * @param source {@link FileChannel} - The channel of the source file.
+     * @param start  {@link long} - The current position of the source channel.
+     * @param target {@link FileChannel} - The channel of the destination file.
+     * @return {@link long} - The amount of bytes written.
+     * @throws IOException - In case there was read/write problem during the transfer.
+     * @since 1.3.0
+     */
+    private static long transferFromFile(@NonNull final FileChannel source, final long start,
+                                         @NonNull final FileChannel target) throws IOException {
+
+        final long size = source.size();
+        long position = start;
+        while (position < size) {
+            final long count = Math.min(TRANSFER_CHUNK_SIZE, size - position);
+            final long transferred = source.transferTo(position, count, target);
+            if (transferred <= 0) {
+                break;
+            }
+            position += transferred;
+        }
+        source.position(position);
+        return position - start;
+    }
+
+    /**
+     * Moves the content of a readable channel into the target channel, until the source channel
+     * reaches its end.
+     *
+     * @param source {@link ReadableByteChannel} - The source channel.
+     * @param target {@link FileChannel} - The channel of the destination file.
+     * @return {@link long} - The amount of bytes written.
+     * @throws IOException - In case there was read/write problem during the transfer.
+     * @since 1.3.0
+     */
+    private static long transferFromChannel(@NonNull final ReadableByteChannel source,
+                                            @NonNull final FileChannel target) throws IOException {
+
+        long position = 0;
+        long transferred;
+        while ((transferred = target.transferFrom(source, position, TRANSFER_CHUNK_SIZE)) > 0) {
+            position += transferred;
+        }
+        return position;
+    }
+
+    /**
+     * Copies the content of a generic input stream into the target channel. The stream reads
+     * straight into the array of the buffer, which is then written as a whole, so every byte is
+     * copied only once on the Java side, and the reads are as big as the buffer.
+     *
+     * @param inputStream {@link InputStream} - The source stream.
+     * @param target      {@link FileChannel} - The channel of the destination file.
+     * @param buffer      {@link ByteBuffer} - The buffer used to copy the data, backed by an
+     *                    accessible array.
+     * @return {@link long} - The amount of bytes written.
+     * @throws IOException - In case there was read/write problem during the copy.
+     * @since 1.3.0
+     */
+    private static long copyBuffered(@NonNull final InputStream inputStream,
+                                     @NonNull final FileChannel target,
+                                     @NonNull final ByteBuffer buffer) throws IOException {
+
+        final byte[] array = buffer.array();
+        final int offset = buffer.arrayOffset();
+        final int capacity = buffer.capacity();
+        try {
+            long written = 0;
+            int read;
+            while ((read = inputStream.read(array, offset, capacity)) != -1) {
+                buffer.clear();
+                buffer.limit(read);
+                while (buffer.hasRemaining()) {
+                    written += target.write(buffer);
+                }
+            }
+            return written;
+        } finally {
+            buffer.clear();
+        }
+    }
+}
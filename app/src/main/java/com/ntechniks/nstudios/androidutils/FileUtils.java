@@ -11,20 +11,21 @@ import androidx.annotation.Nullable;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 
-import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.security.AccessControlException;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 import java.util.zip.ZipInputStream;
 
 /**
  * File Utilities class that helps saving files to a storage.
  *
  * @author Nikola Georgiev
- * @version 1.0
+ * @version 1.1
  * @since 1.2.0
  */
 public final class FileUtils {
@@ -103,7 +104,38 @@ public final class FileUtils {
         if (InitCheck.notPass(TAG, "saveFile", inputStream, file, permissions)) {
             return null;
         }
-        return saveFileImpl(inputStream, file, permissions);
+        return saveFileImpl(inputStream, file, permissions, null);
+    }
+
+    /**
+     * Use this method in order to save any file as {@link InputStream} into the device internal
+     * or external storage files, reusing a buffer owned by the caller. This is useful when many
+     * files are saved in a row, e.g. while unpacking an archive, since a single buffer taken
+     * from the {@link ByteBufferPool} can be used for all of them.
+     *
+     * @param inputStream {@link InputStream} - The file you'd like to save as input stream.
+     * @param file        {@link String} - The file that will be saved.
+     * @param permissions {@link String} - In case the directory doesn't exist, it will create new
+     *                    file with the following permissions attribute.
+     * @param buffer      {@link ByteBuffer} - The buffer used to copy the data.
+     * @return {@link Uri} - The Uri path of the saved file. NULL - in case either some of the
+     * inputStream, file, or buffer has Null Pointer, the file cannot be saved due to some
+     * interruption, missing permission, or the storage is full.
+     * @throws AccessControlException - the AccessController to indicate that a requested access
+     *                                (to a critical system resource such as the file system or
+     *                                the network) is denied.
+     * @throws IllegalAccessException {@link IllegalAccessException} -
+     * @since 1.3.0
+     */
+    @Nullable
+    public static Uri saveFile(final InputStream inputStream, final File file,
+                               @Nullable final String permissions,
+                               final ByteBuffer buffer) throws IllegalAccessException {
+
+        if (InitCheck.notPass(TAG, "saveFile", inputStream, file, permissions, buffer)) {
+            return null;
+        }
+        return saveFileImpl(inputStream, file, permissions, buffer);
     }
 
     /**
@@ -133,12 +165,13 @@ public final class FileUtils {
             return null;
         }
         return saveFileImpl(inputStream, new File(directory, fileName),
-                PermissionUtils.numberToString(accessMode));
+                PermissionUtils.numberToString(accessMode), null);
     }
 
     @Nullable
     private static Uri saveFileImpl(@NonNull final InputStream inputStream, final File file,
-                                    @Nullable final String permissions) throws IllegalAccessException {
+                                    @Nullable final String permissions,
+                                    @Nullable final ByteBuffer buffer) throws IllegalAccessException {
 
         if (file == null) {
             return null;
@@ -147,20 +180,13 @@ public final class FileUtils {
             return null;
         }
 
-        // Buffer the output to the file
-        final int bufferSize = 2048;
-        try (final BufferedOutputStream bufferedOutputStream =
-                     new BufferedOutputStream(new FileOutputStream(file), bufferSize)) {
-
-            // Write the contents
-            int count;
-            final byte[] data = new byte[bufferSize];
-            while ((count = inputStream.read(data, 0, bufferSize)) != -1) {
-                bufferedOutputStream.write(data, 0, count);
+        // Write the contents through the file channels
+        try {
+            if (buffer != null) {
+                FileSaveEngine.save(inputStream, file, buffer);
+            } else {
+                FileSaveEngine.save(inputStream, file);
             }
-            // Flush the buffers
-            bufferedOutputStream.flush();
-
         } catch (final IOException ioe) {
             Debug.error(TAG, "write a file " + file.getAbsolutePath(), "saveFileImpl", ioe);
             return null;
@@ -197,7 +223,9 @@ public final class FileUtils {
     }
 
     /**
-     * Use this method to save image file, in case the internal device storage is writable.
+     * Use this method to save image file, in case the internal device storage is writable. The
+     * image is saved as PNG, see {@link #saveImage(Context, Bitmap, String, String,
+     * ImageEncoder.Format, int)}.
      *
      * @param context  {@link Context} - The base application context.
      * @param bitmap   {@link Bitmap} - An instance of the image bitmap that will be saved.
@@ -215,21 +243,103 @@ public final class FileUtils {
     public static Uri saveImage(final Context context, final Bitmap bitmap,
                                 @Nullable final String subDir, final String fileName) throws IllegalAccessException {
 
-        if (Check.notNull(TAG, "bitmap", "saveImage", bitmap)) {
+        return saveImage(context, bitmap, subDir, fileName, ImageEncoder.Format.PNG, 100);
+    }
+
+    /**
+     * Use this method to save image file with the given format and quality, in case the internal
+     * device storage is writable. The image is encoded on the calling thread, through a buffered
+     * stream.
+     *
+     * @param context  {@link Context} - The base application context.
+     * @param bitmap   {@link Bitmap} - An instance of the image bitmap that will be saved.
+     * @param subDir   {@link String} - The sub-directory name where you'd like to save the file.
+     * @param fileName {@link String} - The name of the file that will be saved.
+     * @param format   {@link ImageEncoder.Format} - The format of the saved image.
+     * @param quality  {@link int} - The quality hint of the encoder, between 0 and 100.
+     * @return {@link Uri} - The Uri path of the saved file. NULL - in case either some of the
+     * context, bitmap, fileName, and format have Null Pointer, the bitmap is recycled, the
+     * quality is out of range, or the image cannot be encoded.
+     * @throws AccessControlException - the AccessController to indicate that a requested access
+     *                                (to a critical system resource such as the file system or
+     *                                the network) is denied.
+     * @throws IllegalAccessException {@link IllegalAccessException} -
+     * @since 1.3.0
+     */
+    @Nullable
+    public static Uri saveImage(final Context context, final Bitmap bitmap, @Nullable final String subDir,
+                                final String fileName, @NonNull final ImageEncoder.Format format,
+                                final int quality) throws IllegalAccessException {
+
+        final String methodName = "saveImage";
+
+        if (!Check.notNull(TAG, "bitmap", methodName, bitmap) || !Check.notNull(TAG, "format", methodName, format)) {
             return null;
         }
+        if (bitmap.isRecycled()) {
+            Debug.warn(TAG, "The bitmap is recycled.", methodName);
+            return null;
+        }
+        if (quality < 0 || quality > 100) {
+            Debug.warn(TAG, "The quality " + quality + " is not between 0 and 100.", methodName);
+            return null;
+        }
+        // Checked before the file is created, so an invalid call leaves no empty file behind
         final File file = createTempFile(context, subDir, fileName);
         if (file == null)
             return null;
 
-        try (final FileOutputStream fos = new FileOutputStream(file)) {
-            bitmap.compress(Bitmap.CompressFormat.PNG, 100, fos);
-            fos.flush();
+        try {
+            return ImageEncoder.encode(bitmap, file, format, quality).getUri();
         } catch (IOException ioe) {
-            Debug.error(TAG, "convert and save bitmap file with name: " + fileName, "saveImage", ioe);
+            Debug.error(TAG, "convert and save bitmap file with name: " + fileName, methodName, ioe);
             return null;
         }
-        return Uri.fromFile(file);
+    }
+
+    /**
+     * Saves image file with the given format and quality on the dedicated encoder threads, see
+     * {@link #saveImage(Context, Bitmap, String, String, ImageEncoder.Format, int)}. The bitmap
+     * should not be changed or recycled until the returned future is done.
+     *
+     * @param context  {@link Context} - The base application context.
+     * @param bitmap   {@link Bitmap} - An instance of the image bitmap that will be saved.
+     * @param subDir   {@link String} - The sub-directory name where you'd like to save the file.
+     * @param fileName {@link String} - The name of the file that will be saved.
+     * @param format   {@link ImageEncoder.Format} - The format of the saved image.
+     * @param quality  {@link int} - The quality hint of the encoder, between 0 and 100.
+     * @return {@link Future} - The future Uri and size of the saved file. It fails with an
+     * {@link IOException} in case the file cannot be created or the image cannot be encoded.
+     * @throws IllegalArgumentException - In case the context, bitmap, fileName, or format is
+     *                                  null, or the quality is out of range.
+     * @since 1.3.0
+     */
+    @NonNull
+    public static Future<ImageEncoder.Result> saveImageAsync(@NonNull final Context context,
+                                                             @NonNull final Bitmap bitmap,
+                                                             @Nullable final String subDir,
+                                                             @NonNull final String fileName,
+                                                             @NonNull final ImageEncoder.Format format,
+                                                             final int quality) {
+
+        Validate.notNull(context, "The context should be valid object.");
+        Validate.notNull(bitmap, "The bitmap should be valid object.");
+        Validate.notNull(fileName, "The fileName should be valid object.");
+        Validate.notNull(format, "The format should be valid object.");
+        Validate.inclusiveBetween(0, 100, quality, "The quality should be between 0 and 100.");
+
+        return ImageEncoder.submit(new Callable<ImageEncoder.Result>() {
+
+            @Override
+            public ImageEncoder.Result call() throws IOException, IllegalAccessException {
+
+                final File file = createTempFile(context, subDir, fileName);
+                if (file == null) {
+                    throw new IOException("Cannot create the image file " + fileName);
+                }
+                return ImageEncoder.encode(bitmap, file, format, quality);
+            }
+        });
     }
 
     /**
@@ -18,13 +18,20 @@ package com.ntechniks.nstudios.androidutils;
  *
  */
 
+import android.os.Build;
+
 import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.List;
 
 /**
  * Official Git repository at https://github.com/marulka/android-utils
  *
  * @author Nikola Georgiev
- * @version 1.0
+ * @version 1.3
  * @since 1.0
  *
  */
@@ -37,6 +44,13 @@ public class GermanLocaleTools {
 	 */
 	private static final String TAG = "GermanLocaleTools";
 
+	/**
+	 * The transliterator with the German rule set, shared by all the calls.
+	 *
+	 * @since 1.3.0
+	 */
+	private static final Transliterator sTransliterator = new Transliterator(Transliterator.RuleSet.GERMAN);
+
 	/**
 	 * Main constructor with private accessor to prevent instantiating the class.
 	 *
@@ -74,29 +88,89 @@ public class GermanLocaleTools {
 
 		if (Check.validString(TAG, "pageName", methodName, title)) {
 
-			/*
-			 * Array with all specific letters in the German alphabet and their
-			 * equivalents.
-			 */
-			final String[][] umlautReplacements = { { new String("Ä"), "Ae" }, { new String("Ü"), "Ue" },
-					{ new String("Ö"), "Oe" }, { new String("ä"), "ae" }, { new String("ü"), "ue" },
-					{ new String("ö"), "oe" }, { new String("ß"), "ss" } };
+			title = sTransliterator.transliterate(title);
+		}
+
+		return title;
+	}
+
+	// =================================================================================================================================
 
-			// Replaces the Umlaut chars in string with their equivalents.
-			for (int i = 0; i < umlautReplacements.length; i++) {
+	/**
+	 * Replaces all specific and Umlaut chars in the German alphabet with their
+	 * equivalent strings, see {@link #filterString(String)}, appending the
+	 * result to the given builder. The title is scanned only once, and the
+	 * chars are appended directly, without any intermediate strings. The
+	 * replacements come from the {@link Transliterator.RuleSet#GERMAN} rule
+	 * set.
+	 *
+	 * @param title
+	 *            {@link CharSequence} - The chars that will be filtered for
+	 *            Umlaut chars.
+	 * @param out
+	 *            {@link StringBuilder} - The builder where the filtered chars
+	 *            will be appended.
+	 * @return {@link StringBuilder} - The given builder.
+	 * @throws IllegalArgumentException
+	 *             - In case the title or out is null.
+	 * @since 1.3.0
+	 */
+	@NonNull
+	public static StringBuilder filterString(@NonNull CharSequence title, @NonNull StringBuilder out) {
 
-				try {
+		Validate.notNull(title, "The title should be valid object.");
+		Validate.notNull(out, "The out should be valid object.");
 
-					title = title.replace(umlautReplacements[i][0], umlautReplacements[i][1]);
+		return sTransliterator.transliterate(title, out);
+	}
 
-				} catch (final Exception e) {
-					Debug.error(TAG, "replacing Umlaut chars with equivalent strings", methodName, e);
-				}
+	// =================================================================================================================================
 
-			}
+	/**
+	 * Replaces all specific and Umlaut chars in the German alphabet with their
+	 * equivalent strings, see {@link #filterString(String)}, for a whole batch
+	 * of titles. The titles are processed in parallel chunks by a shared
+	 * fork-join pool. The null titles stay null.
+	 *
+	 * @param titles
+	 *            {@literal List<String>} - The titles that will be filtered for
+	 *            Umlaut chars.
+	 * @param deduplicate
+	 *            boolean - True if identical titles should be filtered only
+	 *            once, which pays off for batches with many repeated titles.
+	 * @return {@literal List<String>} - New list with the filtered titles, in
+	 *         the same order.
+	 * @throws IllegalArgumentException
+	 *             - In case the titles is null.
+	 * @since 1.3.0
+	 */
+	@NonNull
+	@RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+	public static List<String> filterStrings(@NonNull List<String> titles, boolean deduplicate) {
+		return sTransliterator.transliterateAll(titles, deduplicate);
+	}
 
-		}
+	// =================================================================================================================================
 
-		return title;
+	/**
+	 * Replaces all specific and Umlaut chars in the German alphabet with their
+	 * equivalent strings, see {@link #filterString(String)}, for a whole batch
+	 * of titles. The titles are processed in parallel chunks by a shared
+	 * fork-join pool. The null titles stay null.
+	 *
+	 * @param titles
+	 *            String[] - The titles that will be filtered for Umlaut chars.
+	 * @param deduplicate
+	 *            boolean - True if identical titles should be filtered only
+	 *            once, which pays off for batches with many repeated titles.
+	 * @return String[] - New array with the filtered titles, in the same order.
+	 * @throws IllegalArgumentException
+	 *             - In case the titles is null.
+	 * @since 1.3.0
+	 */
+	@NonNull
+	@RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+	public static String[] filterStrings(@NonNull String[] titles, boolean deduplicate) {
+		return sTransliterator.transliterateAll(titles, deduplicate);
 	}
 }
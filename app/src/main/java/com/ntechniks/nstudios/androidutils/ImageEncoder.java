@@ -0,0 +1,284 @@
+package com.ntechniks.nstudios.androidutils;
+
+import android.graphics.Bitmap;
+import android.net.Uri;
+import android.os.Build;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+
+import org.apache.commons.lang3.Validate;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Encodes {@link Bitmap}s into image files with a chosen format and quality. The encoded data is
+ * written through a buffered stream, so the encoder does not hit the file system with many small
+ * writes. The images can be encoded on the calling thread, or on the dedicated encoder threads,
+ * see {@link #encodeAsync(Bitmap, File, Format, int)}.
+ *
+ * @author Nikola Georgiev
+ * @version 1.0
+ * @since 1.3.0
+ */
+public final class ImageEncoder {
+
+    public static final String TAG = ImageEncoder.class.getSimpleName();
+
+    /**
+     * The size of the buffer between the encoder and the file.
+     *
+     * @since 1.3.0
+     */
+    public static final int ENCODE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The API level which introduced the explicit lossy and lossless WebP formats. The library
+     * is compiled against an older SDK, so the formats are looked up by name.
+     */
+    private static final int API_WEBP_LOSSY_LOSSLESS = 30;
+
+    /**
+     * The image formats supported by the encoder.
+     *
+     * @since 1.3.0
+     */
+    public enum Format {
+
+        /**
+         * Lossless PNG. The quality is ignored.
+         */
+        PNG("png"),
+
+        /**
+         * Lossy JPEG, the usual choice for camera photos.
+         */
+        JPEG("jpg"),
+
+        /**
+         * Lossy WebP.
+         */
+        WEBP_LOSSY("webp"),
+
+        /**
+         * Lossless WebP. The quality controls the compression effort. Below API 30 the legacy
+         * WebP format is used with quality 100, which is lossless on API 29, and the closest
+         * lossy result below it.
+         */
+        WEBP_LOSSLESS("webp");
+
+        private final String mExtension;
+
+        Format(@NonNull final String extension) {
+            mExtension = extension;
+        }
+
+        /**
+         * @return {@link String} - The usual file extension of the format, without the dot.
+         * @since 1.3.0
+         */
+        @NonNull
+        public String getExtension() {
+            return mExtension;
+        }
+    }
+
+    /**
+     * The outcome of a successful encoding.
+     *
+     * @since 1.3.0
+     */
+    public static final class Result {
+
+        private final Uri mUri;
+        private final long mSize;
+
+        Result(@NonNull final Uri uri, final long size) {
+            mUri = uri;
+            mSize = size;
+        }
+
+        /**
+         * @return {@link Uri} - The Uri of the encoded file.
+         * @since 1.3.0
+         */
+        @NonNull
+        public Uri getUri() {
+            return mUri;
+        }
+
+        /**
+         * @return {@link long} - The size of the encoded file in bytes.
+         * @since 1.3.0
+         */
+        public long getSize() {
+            return mSize;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{" + mUri + ", " + mSize + " bytes}";
+        }
+    }
+
+    /**
+     * Holds the encoder threads, which are created with the first asynchronous encoding. The
+     * encoding is CPU bound, so there are as many threads as processors, but at most two, to
+     * leave room for the UI and the decoders.
+     */
+    private static final class ExecutorHolder {
+
+        static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+                Math.min(2, Runtime.getRuntime().availableProcessors()), new ThreadFactory() {
+
+                    private final AtomicInteger mCount = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(@NonNull final Runnable runnable) {
+
+                        final Thread thread = new Thread(runnable, TAG + '-' + mCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+    }
+
+    /**
+     * Main constructor with private accessor to prevent instantiating the class.
+     *
+     * @since 1.3.0
+     */
+    private ImageEncoder() {
+        // Nothing to implement here.
+    }
+
+    /**
+     * Encodes an image into a file on the calling thread. The file will be truncated in case it
+     * already exists.
+     *
+     * @param bitmap  {@link Bitmap} - The image to encode.
+     * @param file    {@link File} - The destination file.
+     * @param format  {@link Format} - The format of the encoded image.
+     * @param quality {@link int} - The quality hint of the encoder, between 0 and 100.
+     * @return {@link Result} - The Uri and the size of the encoded file.
+     * @throws IOException              - In case the image cannot be encoded or written.
+     * @throws IllegalArgumentException - In case the bitmap, file, or format is null, the bitmap
+     *                                  is recycled, or the quality is out of range.
+     * @since 1.3.0
+     */
+    @NonNull
+    @WorkerThread
+    public static Result encode(@NonNull final Bitmap bitmap, @NonNull final File file, @NonNull final Format format,
+                                @IntRange(from = 0, to = 100) final int quality) throws IOException {
+
+        validate(bitmap, file, format, quality);
+
+        try (final OutputStream out = new BufferedOutputStream(new FileOutputStream(file), ENCODE_BUFFER_SIZE)) {
+            if (!bitmap.compress(toCompressFormat(format), toQuality(format, quality), out)) {
+                throw new IOException("Cannot encode the image into " + file.getAbsolutePath());
+            }
+        }
+        return new Result(Uri.fromFile(file), file.length());
+    }
+
+    /**
+     * Encodes an image into a file on the encoder threads, see
+     * {@link #encode(Bitmap, File, Format, int)}. The image should not be changed or recycled
+     * until the returned future is done.
+     *
+     * @param bitmap  {@link Bitmap} - The image to encode.
+     * @param file    {@link File} - The destination file.
+     * @param format  {@link Format} - The format of the encoded image.
+     * @param quality {@link int} - The quality hint of the encoder, between 0 and 100.
+     * @return {@link Future} - The future {@link Result}. It fails with the {@link IOException} of
+     * the encoding.
+     * @throws IllegalArgumentException - In case the bitmap, file, or format is null, the bitmap
+     *                                  is recycled, or the quality is out of range.
+     * @since 1.3.0
+     */
+    @NonNull
+    public static Future<Result> encodeAsync(@NonNull final Bitmap bitmap, @NonNull final File file,
+                                             @NonNull final Format format,
+                                             @IntRange(from = 0, to = 100) final int quality) {
+
+        validate(bitmap, file, format, quality);
+
+        return submit(new Callable<Result>() {
+
+            @Override
+            public Result call() throws IOException {
+                return encode(bitmap, file, format, quality);
+            }
+        });
+    }
+
+    /**
+     * Runs an encoding task on the encoder threads.
+     *
+     * @param task {@link Callable} - The encoding task.
+     * @return {@link Future} - The future result of the task.
+     * @since 1.3.0
+     */
+    @NonNull
+    static <T> Future<T> submit(@NonNull final Callable<T> task) {
+        return ExecutorHolder.EXECUTOR.submit(task);
+    }
+
+    /**
+     * Maps a format to the format of the platform encoder.
+     *
+     * @param format {@link Format} - The format of the encoded image.
+     * @return {@link Bitmap.CompressFormat} - The platform format.
+     * @since 1.3.0
+     */
+    @NonNull
+    @SuppressWarnings("deprecation")
+    static Bitmap.CompressFormat toCompressFormat(@NonNull final Format format) {
+
+        switch (format) {
+            case JPEG:
+                return Bitmap.CompressFormat.JPEG;
+            case WEBP_LOSSY:
+                return (Build.VERSION.SDK_INT >= API_WEBP_LOSSY_LOSSLESS)
+                        ? Bitmap.CompressFormat.valueOf("WEBP_LOSSY") : Bitmap.CompressFormat.WEBP;
+            case WEBP_LOSSLESS:
+                return (Build.VERSION.SDK_INT >= API_WEBP_LOSSY_LOSSLESS)
+                        ? Bitmap.CompressFormat.valueOf("WEBP_LOSSLESS") : Bitmap.CompressFormat.WEBP;
+            default:
+                return Bitmap.CompressFormat.PNG;
+        }
+    }
+
+    /**
+     * Adjusts the quality hint to the platform encoder. The legacy WebP format is lossless only
+     * with quality 100.
+     *
+     * @param format  {@link Format} - The format of the encoded image.
+     * @param quality {@link int} - The requested quality.
+     * @return {@link int} - The quality passed to the platform encoder.
+     * @since 1.3.0
+     */
+    static int toQuality(@NonNull final Format format, final int quality) {
+        return (format == Format.WEBP_LOSSLESS && Build.VERSION.SDK_INT < API_WEBP_LOSSY_LOSSLESS) ? 100 : quality;
+    }
+
+    private static void validate(final Bitmap bitmap, final File file, final Format format, final int quality) {
+
+        Validate.notNull(bitmap, "The bitmap should be valid object.");
+        Validate.notNull(file, "The file should be valid object.");
+        Validate.notNull(format, "The format should be valid object.");
+        Validate.isTrue(!bitmap.isRecycled(), "The bitmap should not be recycled.");
+        Validate.inclusiveBetween(0, 100, quality, "The quality should be between 0 and 100.");
+    }
+}
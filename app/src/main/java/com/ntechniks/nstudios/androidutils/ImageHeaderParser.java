@@ -0,0 +1,439 @@
+package com.ntechniks.nstudios.androidutils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.apache.commons.lang3.Validate;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads the size of an image straight from the header of its file, without any decoder. PNG,
+ * JPEG, WebP, and GIF files are supported. Only the few bytes which hold the size are read, with
+ * positional reads through a {@link FileChannel}, so the JPEG segments before the frame header,
+ * e.g. large EXIF thumbnails, are skipped without being read. The EXIF orientation of JPEG files
+ * is read as well.
+ * <p>
+ * The parser uses only plain Java, so it can be used from any thread, and in bulk, e.g. while
+ * indexing a whole gallery.
+ *
+ * @author Nikola Georgiev
+ * @version 1.0
+ * @since 1.3.0
+ */
+public final class ImageHeaderParser {
+
+    public static final String TAG = ImageHeaderParser.class.getSimpleName();
+
+    /**
+     * The EXIF orientation of images which should be shown as they are stored.
+     *
+     * @since 1.3.0
+     */
+    public static final int ORIENTATION_NORMAL = 1;
+
+    /**
+     * The maximum amount of JPEG segments visited before the frame header, so broken files do
+     * not keep the parser busy.
+     */
+    private static final int MAX_JPEG_SEGMENTS = 1024;
+
+    /**
+     * The maximum amount of EXIF entries visited while looking for the orientation.
+     */
+    private static final int MAX_EXIF_ENTRIES = 512;
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int EXIF_TAG_ORIENTATION = 0x0112;
+    private static final int EXIF_TYPE_SHORT = 3;
+
+    /**
+     * The supported image formats.
+     *
+     * @since 1.3.0
+     */
+    public enum Format {
+        PNG, JPEG, WEBP, GIF
+    }
+
+    /**
+     * The size of an image, as stored in its file.
+     *
+     * @since 1.3.0
+     */
+    public static final class ImageHeader {
+
+        private final Format mFormat;
+        private final int mWidth;
+        private final int mHeight;
+        private final int mOrientation;
+
+        ImageHeader(@NonNull final Format format, final int width, final int height, final int orientation) {
+            mFormat = format;
+            mWidth = width;
+            mHeight = height;
+            mOrientation = orientation;
+        }
+
+        /**
+         * @return {@link Format} - The format of the image file.
+         * @since 1.3.0
+         */
+        @NonNull
+        public Format getFormat() {
+            return mFormat;
+        }
+
+        /**
+         * @return {@link int} - The stored width of the image, as a decoder would return it.
+         * @since 1.3.0
+         */
+        public int getWidth() {
+            return mWidth;
+        }
+
+        /**
+         * @return {@link int} - The stored height of the image, as a decoder would return it.
+         * @since 1.3.0
+         */
+        public int getHeight() {
+            return mHeight;
+        }
+
+        /**
+         * @return {@link int} - The EXIF orientation, between 1 and 8, or
+         * {@link #ORIENTATION_NORMAL} if the image has no orientation.
+         * @since 1.3.0
+         */
+        public int getOrientation() {
+            return mOrientation;
+        }
+
+        /**
+         * @return {@link boolean} - True if the orientation turns the image by 90 degrees, so
+         * the shown width and height are swapped.
+         * @since 1.3.0
+         */
+        public boolean isTransposed() {
+            return mOrientation >= 5 && mOrientation <= 8;
+        }
+
+        @Override
+        public String toString() {
+            return "ImageHeader{" + mFormat + ' ' + mWidth + 'x' + mHeight + ", orientation=" + mOrientation + '}';
+        }
+    }
+
+    /**
+     * Main constructor with private accessor to prevent instantiating the class.
+     *
+     * @since 1.3.0
+     */
+    private ImageHeaderParser() {
+        // Nothing to implement here.
+    }
+
+    /**
+     * Reads the header of an image file.
+     *
+     * @param file {@link File} - The image file.
+     * @return {@link ImageHeader} - The size of the image, or NULL if the file is not a
+     * supported image, or its header is broken.
+     * @throws IOException              - In case the file cannot be read.
+     * @throws IllegalArgumentException - In case the file is null.
+     * @since 1.3.0
+     */
+    @Nullable
+    public static ImageHeader parse(@NonNull final File file) throws IOException {
+
+        Validate.notNull(file, "The file should be valid object.");
+
+        try (final FileInputStream in = new FileInputStream(file)) {
+            return parse(in.getChannel());
+        }
+    }
+
+    /**
+     * Reads the header of an image. The channel position is not changed, all the reads are
+     * positional, starting from the beginning of the channel.
+     *
+     * @param channel {@link FileChannel} - The channel of the image file. It stays open.
+     * @return {@link ImageHeader} - The size of the image, or NULL if the channel does not hold
+     * a supported image, or its header is broken.
+     * @throws IOException              - In case the channel cannot be read.
+     * @throws IllegalArgumentException - In case the channel is null.
+     * @since 1.3.0
+     */
+    @Nullable
+    public static ImageHeader parse(@NonNull final FileChannel channel) throws IOException {
+
+        Validate.notNull(channel, "The channel should be valid object.");
+
+        final ByteBuffer buffer = ByteBuffer.allocate(32);
+        if (!read(channel, 0, 12, buffer)) {
+            return null;
+        }
+
+        if (startsWith(buffer, PNG_SIGNATURE)) {
+            return parsePng(channel, buffer);
+        }
+        if ((buffer.get(0) & 0xFF) == 0xFF && (buffer.get(1) & 0xFF) == 0xD8) {
+            return parseJpeg(channel, buffer);
+        }
+        if (buffer.get(0) == 'G' && buffer.get(1) == 'I' && buffer.get(2) == 'F' && buffer.get(3) == '8') {
+            return parseGif(channel, buffer);
+        }
+        if (isFourCc(buffer, 0, "RIFF") && isFourCc(buffer, 8, "WEBP")) {
+            return parseWebp(channel, buffer);
+        }
+        return null;
+    }
+
+    /**
+     * PNG: the size is the first field of the IHDR chunk, which directly follows the signature.
+     */
+    @Nullable
+    private static ImageHeader parsePng(@NonNull final FileChannel channel, @NonNull final ByteBuffer buffer)
+            throws IOException {
+
+        if (!read(channel, 8, 16, buffer) || !isFourCc(buffer, 4, "IHDR")) {
+            return null;
+        }
+        return header(Format.PNG, buffer.getInt(8), buffer.getInt(12), ORIENTATION_NORMAL);
+    }
+
+    /**
+     * GIF: the logical screen size follows the version.
+     */
+    @Nullable
+    private static ImageHeader parseGif(@NonNull final FileChannel channel, @NonNull final ByteBuffer buffer)
+            throws IOException {
+
+        if (!read(channel, 6, 4, buffer)) {
+            return null;
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return header(Format.GIF, buffer.getShort(0) & 0xFFFF, buffer.getShort(2) & 0xFFFF, ORIENTATION_NORMAL);
+    }
+
+    /**
+     * WebP: the size is stored by the first chunk, which is lossy VP8, lossless VP8L, or the
+     * extended VP8X canvas.
+     */
+    @Nullable
+    private static ImageHeader parseWebp(@NonNull final FileChannel channel, @NonNull final ByteBuffer buffer)
+            throws IOException {
+
+        // The lossless header is the shortest one, the others need 18 bytes from the chunk start
+        if (!read(channel, 12, 4, buffer)) {
+            return null;
+        }
+        if (!read(channel, 12, isFourCc(buffer, 0, "VP8L") ? 13 : 18, buffer)) {
+            return null;
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        // The chunk data starts at 8, after the FourCC and the chunk size
+        if (isFourCc(buffer, 0, "VP8 ")) {
+            // Frame tag of 3 bytes, then the 9D 01 2A start code, then the 14 bit sizes
+            if ((buffer.get(11) & 0xFF) != 0x9D || (buffer.get(12) & 0xFF) != 0x01 || (buffer.get(13) & 0xFF) != 0x2A) {
+                return null;
+            }
+            return header(Format.WEBP, buffer.getShort(14) & 0x3FFF, buffer.getShort(16) & 0x3FFF, ORIENTATION_NORMAL);
+        }
+        if (isFourCc(buffer, 0, "VP8L")) {
+            if ((buffer.get(8) & 0xFF) != 0x2F) {
+                return null;
+            }
+            final int bits = buffer.getInt(9);
+            return header(Format.WEBP, (bits & 0x3FFF) + 1, ((bits >>> 14) & 0x3FFF) + 1, ORIENTATION_NORMAL);
+        }
+        if (isFourCc(buffer, 0, "VP8X")) {
+            // Flags of 4 bytes, then the 24 bit canvas sizes minus one
+            return header(Format.WEBP, uint24(buffer, 12) + 1, uint24(buffer, 15) + 1, ORIENTATION_NORMAL);
+        }
+        return null;
+    }
+
+    /**
+     * JPEG: walks the segments up to the frame header, reading the EXIF orientation on the way.
+     */
+    @Nullable
+    private static ImageHeader parseJpeg(@NonNull final FileChannel channel, @NonNull final ByteBuffer buffer)
+            throws IOException {
+
+        int orientation = ORIENTATION_NORMAL;
+        long position = 2;
+        for (int segment = 0; segment < MAX_JPEG_SEGMENTS; segment++) {
+
+            if (!read(channel, position, 2, buffer) || (buffer.get(0) & 0xFF) != 0xFF) {
+                return null;
+            }
+            final int marker = buffer.get(1) & 0xFF;
+            if (marker == 0xFF) {
+                // Fill byte before the marker
+                position++;
+                continue;
+            }
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                // Stand-alone markers without length
+                position += 2;
+                continue;
+            }
+            if (marker == 0xD9 || marker == 0xDA) {
+                // End of image, or the scan data starts before any frame header
+                return null;
+            }
+
+            if (!read(channel, position + 2, 2, buffer)) {
+                return null;
+            }
+            final int length = buffer.getShort(0) & 0xFFFF;
+            if (length < 2) {
+                return null;
+            }
+
+            if (isStartOfFrame(marker)) {
+                if (!read(channel, position + 4, 5, buffer)) {
+                    return null;
+                }
+                final int height = buffer.getShort(1) & 0xFFFF;
+                final int width = buffer.getShort(3) & 0xFFFF;
+                return header(Format.JPEG, width, height, orientation);
+            }
+            if (marker == 0xE1 && orientation == ORIENTATION_NORMAL) {
+                orientation = readExifOrientation(channel, position + 4, length - 2, buffer);
+            }
+            position += 2 + length;
+        }
+        return null;
+    }
+
+    /**
+     * Reads the orientation from the first IFD of an APP1 segment.
+     *
+     * @param channel {@link FileChannel} - The channel of the image.
+     * @param start   {@link long} - The position of the segment data.
+     * @param length  {@link int} - The length of the segment data.
+     * @param buffer  {@link ByteBuffer} - The scratch buffer.
+     * @return {@link int} - The orientation, or {@link #ORIENTATION_NORMAL} if the segment has no
+     * valid orientation.
+     * @throws IOException - In case the channel cannot be read.
+     * @since 1.3.0
+     */
+    private static int readExifOrientation(@NonNull final FileChannel channel, final long start, final int length,
+                                           @NonNull final ByteBuffer buffer) throws IOException {
+
+        // "Exif\0\0", then the TIFF header: byte order, 42, and the offset of the first IFD
+        if (length < 14 || !read(channel, start, 14, buffer) || !isFourCc(buffer, 0, "Exif")
+                || buffer.get(4) != 0 || buffer.get(5) != 0) {
+            return ORIENTATION_NORMAL;
+        }
+        final long tiff = start + 6;
+        if (buffer.get(6) == 'I' && buffer.get(7) == 'I') {
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+        } else if (buffer.get(6) == 'M' && buffer.get(7) == 'M') {
+            buffer.order(ByteOrder.BIG_ENDIAN);
+        } else {
+            return ORIENTATION_NORMAL;
+        }
+        final long ifd = buffer.getInt(10) & 0xFFFFFFFFL;
+        final long end = tiff + length - 6;
+        if (buffer.getShort(8) != 42 || tiff + ifd + 2 > end) {
+            return ORIENTATION_NORMAL;
+        }
+
+        final ByteOrder order = buffer.order();
+        if (!read(channel, tiff + ifd, 2, buffer)) {
+            return ORIENTATION_NORMAL;
+        }
+        buffer.order(order);
+        final int count = Math.min(buffer.getShort(0) & 0xFFFF, MAX_EXIF_ENTRIES);
+        for (int i = 0; i < count; i++) {
+
+            final long entry = tiff + ifd + 2 + i * 12L;
+            if (entry + 12 > end || !read(channel, entry, 12, buffer)) {
+                break;
+            }
+            buffer.order(order);
+            if ((buffer.getShort(0) & 0xFFFF) == EXIF_TAG_ORIENTATION) {
+                final int value = buffer.getShort(8) & 0xFFFF;
+                if (buffer.getShort(2) == EXIF_TYPE_SHORT && value >= 1 && value <= 8) {
+                    return value;
+                }
+                break;
+            }
+        }
+        return ORIENTATION_NORMAL;
+    }
+
+    /**
+     * Checks whether a JPEG marker starts a frame header. DHT (C4), JPG (C8), and DAC (CC) share
+     * the range, but are not frames.
+     */
+    private static boolean isStartOfFrame(final int marker) {
+        return marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+    }
+
+    /**
+     * Creates a header, or returns NULL for a broken size.
+     */
+    @Nullable
+    private static ImageHeader header(@NonNull final Format format, final int width, final int height,
+                                      final int orientation) {
+        return (width > 0 && height > 0) ? new ImageHeader(format, width, height, orientation) : null;
+    }
+
+    /**
+     * Reads exactly the given amount of bytes from a position of the channel into the start of
+     * the buffer. The buffer is left with position 0 and big endian order.
+     *
+     * @return {@link boolean} - False if the channel ends before all the bytes are read.
+     */
+    private static boolean read(@NonNull final FileChannel channel, final long position, final int count,
+                                @NonNull final ByteBuffer buffer) throws IOException {
+
+        buffer.clear();
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        buffer.limit(count);
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, offset);
+            if (read < 0) {
+                return false;
+            }
+            offset += read;
+        }
+        buffer.flip();
+        return true;
+    }
+
+    private static boolean startsWith(@NonNull final ByteBuffer buffer, @NonNull final byte[] prefix) {
+
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isFourCc(@NonNull final ByteBuffer buffer, final int index, @NonNull final String fourCc) {
+
+        for (int i = 0; i < 4; i++) {
+            if (buffer.get(index + i) != fourCc.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int uint24(@NonNull final ByteBuffer buffer, final int index) {
+        return (buffer.get(index) & 0xFF) | (buffer.get(index + 1) & 0xFF) << 8 | (buffer.get(index + 2) & 0xFF) << 16;
+    }
+}
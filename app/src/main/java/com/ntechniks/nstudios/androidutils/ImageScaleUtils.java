@@ -19,8 +19,6 @@ package com.ntechniks.nstudios.androidutils;
  */
 
 import android.app.Activity;
-import android.graphics.BitmapFactory;
-import android.graphics.BitmapFactory.Options;
 import android.graphics.Rect;
 import android.util.DisplayMetrics;
 
@@ -170,7 +168,8 @@ public class ImageScaleUtils {
 	// =================================================================================================================================
 
 	/**
-	 * Gets the image dimensions and put them in a Rect object.
+	 * Gets the image dimensions and put them in a Rect object, see
+	 * {@link ImageUtils#getImageDimens(String)}.
 	 * 
 	 * @param imagePath
 	 *            {@link String} - The String path to the image file.
@@ -180,22 +179,6 @@ public class ImageScaleUtils {
 	@Deprecated
 	public static Rect getImageDimens(@NonNull String imagePath) {
 
-		if (Check.validString(TAG, "imagePath String", "getImageDimens", imagePath)) {
-
-			/*
-			 * The BitmapFactory will only decode the file to get its dimension,
-			 * the bitmap image won't be loaded in the memory.
-			 */
-			final Options options = new BitmapFactory.Options();
-			options.inJustDecodeBounds = true;
-			BitmapFactory.decodeFile(imagePath, options);
-
-			final int imageHeight = options.outHeight;
-			final int imageWidth = options.outWidth;
-
-			return new Rect(imageHeight, imageWidth, imageHeight, imageWidth);
-		}
-
-		return null;
+		return ImageUtils.getImageDimens(imagePath);
 	}
 }
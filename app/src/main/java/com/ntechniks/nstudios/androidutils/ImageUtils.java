@@ -19,18 +19,25 @@ package com.ntechniks.nstudios.androidutils;
  */
 
 import android.app.Activity;
+import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.BitmapFactory.Options;
 import android.graphics.Rect;
+import android.os.Build;
 import android.util.DisplayMetrics;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.io.File;
+import java.io.IOException;
 
 /**
  * Official Git repository at https://github.com/marulka/android-utils
  * 
  * @author Nikola Georgiev
- * @version 1.0
+ * @version 1.2
  * @since 1.1.2
  * 
  */
@@ -160,7 +167,10 @@ public class ImageUtils {
 	// =================================================================================================================================
 
 	/**
-	 * Gets the image dimensions and put them in a Rect object.
+	 * Gets the image dimensions and put them in a Rect object. The dimensions
+	 * of PNG, JPEG, WebP, and GIF images are read straight from the file
+	 * header by the {@link ImageHeaderParser}, the other images are probed by
+	 * the {@link BitmapFactory}.
 	 *
 	 * @param imagePath
 	 *            {@link String} - The String path to the image file.
@@ -171,6 +181,18 @@ public class ImageUtils {
 
 		if (Check.validString(TAG, "imagePath String", "getImageDimens", imagePath)) {
 
+			try {
+				final ImageHeaderParser.ImageHeader header = ImageHeaderParser.parse(new File(imagePath));
+				if (header != null) {
+					final int imageHeight = header.getHeight();
+					final int imageWidth = header.getWidth();
+
+					return new Rect(imageHeight, imageWidth, imageHeight, imageWidth);
+				}
+			} catch (final IOException e) {
+				Debug.error(TAG, "reading the image header", "getImageDimens", e);
+			}
+
 			/*
 			 * The BitmapFactory will only decode the file to get its dimension,
 			 * the bitmap image won't be loaded in the memory.
@@ -187,4 +209,258 @@ public class ImageUtils {
 
 		return null;
 	}
+
+	// =================================================================================================================================
+
+	/**
+	 * Computes the largest power of two sample size, which keeps both sides of
+	 * the decoded image at least as big as the requested size. The result can
+	 * be used as {@link Options#inSampleSize}.
+	 *
+	 * @param width
+	 *            int - The width of the image.
+	 * @param height
+	 *            int - The height of the image.
+	 * @param reqWidth
+	 *            int - The requested width of the decoded image.
+	 * @param reqHeight
+	 *            int - The requested height of the decoded image.
+	 * @return int - The sample size, 1 if the image should be decoded at full
+	 *         size, or any of the sizes is not positive.
+	 * @since 1.3.0
+	 */
+	public static int calculateInSampleSize(int width, int height, int reqWidth, int reqHeight) {
+
+		int inSampleSize = 1;
+		if (width <= 0 || height <= 0 || reqWidth <= 0 || reqHeight <= 0) {
+			return inSampleSize;
+		}
+
+		final int halfWidth = width / 2;
+		final int halfHeight = height / 2;
+		while ((halfWidth / inSampleSize) >= reqWidth && (halfHeight / inSampleSize) >= reqHeight) {
+			inSampleSize *= 2;
+		}
+		return inSampleSize;
+	}
+
+	// =================================================================================================================================
+
+	/**
+	 * Decodes a down-sampled {@link Bitmap} as {@link Bitmap.Config#ARGB_8888},
+	 * see {@link #decodeSampledBitmap(String, int, int, Bitmap.Config, Bitmap)}.
+	 *
+	 * @param imagePath
+	 *            {@link String} - The String path to the image file.
+	 * @param reqWidth
+	 *            int - The requested width of the decoded image.
+	 * @param reqHeight
+	 *            int - The requested height of the decoded image.
+	 * @return {@link Bitmap} - The decoded image, or null on failure.
+	 * @since 1.3.0
+	 */
+	@Nullable
+	@WorkerThread
+	public static Bitmap decodeSampledBitmap(@NonNull String imagePath, int reqWidth, int reqHeight) {
+		return decodeSampledBitmap(imagePath, reqWidth, reqHeight, Bitmap.Config.ARGB_8888, null);
+	}
+
+	// =================================================================================================================================
+
+	/**
+	 * Decodes an image file, down-sampled close to the requested size, so the
+	 * full resolution image is never loaded in the memory. The bounds of the
+	 * image are read once, and the power of two sample size is computed by
+	 * {@link #calculateInSampleSize(int, int, int, int)}. The decoded image is
+	 * at least as big as the requested size, unless the image itself is
+	 * smaller, and it is not scaled any further.
+	 * <p>
+	 * When a reusable {@link Bitmap} is given and it can hold the decoded
+	 * image, its memory is reused instead of allocating a new {@link Bitmap},
+	 * see {@link #canReuseBitmap(Bitmap, int, int, int, Bitmap.Config)}. In
+	 * such case the reusable {@link Bitmap} itself is returned, and its
+	 * previous content is lost.
+	 * </p>
+	 *
+	 * @param imagePath
+	 *            {@link String} - The String path to the image file.
+	 * @param reqWidth
+	 *            int - The requested width of the decoded image.
+	 * @param reqHeight
+	 *            int - The requested height of the decoded image.
+	 * @param config
+	 *            {@link Bitmap.Config} - The preferred config of the decoded
+	 *            image, e.g. {@link Bitmap.Config#RGB_565} to halve the memory
+	 *            of opaque images. Null for the default config.
+	 * @param reusable
+	 *            {@link Bitmap} - Mutable {@link Bitmap}, which memory may be
+	 *            reused by the decoder. Null-safe.
+	 * @return {@link Bitmap} - The decoded image, or null on failure.
+	 * @since 1.3.0
+	 */
+	@Nullable
+	@WorkerThread
+	public static Bitmap decodeSampledBitmap(@NonNull String imagePath, int reqWidth, int reqHeight,
+											 @Nullable Bitmap.Config config, @Nullable Bitmap reusable) {
+		return decodeSampledBitmap(imagePath, reqWidth, reqHeight, config, reusable, null);
+	}
+
+	// =================================================================================================================================
+
+	/**
+	 * Decodes an image file, down-sampled close to the requested size, see
+	 * {@link #decodeSampledBitmap(String, int, int, Bitmap.Config, Bitmap)}.
+	 * The decoder reuses a {@link Bitmap} taken from the pool, when the pool
+	 * can provide one for the sampled size. The decoded image can be given
+	 * back to the pool, once it is no longer needed.
+	 *
+	 * @param imagePath
+	 *            {@link String} - The String path to the image file.
+	 * @param reqWidth
+	 *            int - The requested width of the decoded image.
+	 * @param reqHeight
+	 *            int - The requested height of the decoded image.
+	 * @param config
+	 *            {@link Bitmap.Config} - The preferred config of the decoded
+	 *            image. Null for the default config.
+	 * @param pool
+	 *            {@link BitmapReusePool} - The pool of reusable
+	 *            {@link Bitmap}s.
+	 * @return {@link Bitmap} - The decoded image, or null on failure.
+	 * @since 1.3.0
+	 */
+	@Nullable
+	@WorkerThread
+	public static Bitmap decodePooledBitmap(@NonNull String imagePath, int reqWidth, int reqHeight,
+											@Nullable Bitmap.Config config, @NonNull BitmapReusePool pool) {
+		return decodeSampledBitmap(imagePath, reqWidth, reqHeight, config, null, pool);
+	}
+
+	// =================================================================================================================================
+
+	/**
+	 * Decodes an image file, down-sampled close to the requested size, into
+	 * the reusable {@link Bitmap}, or into a {@link Bitmap} taken from the
+	 * pool.
+	 *
+	 * @param imagePath
+	 *            {@link String} - The String path to the image file.
+	 * @param reqWidth
+	 *            int - The requested width of the decoded image.
+	 * @param reqHeight
+	 *            int - The requested height of the decoded image.
+	 * @param config
+	 *            {@link Bitmap.Config} - The preferred config of the decoded
+	 *            image. Null for the default config.
+	 * @param reusable
+	 *            {@link Bitmap} - Mutable {@link Bitmap}, which memory may be
+	 *            reused by the decoder. Null-safe.
+	 * @param pool
+	 *            {@link BitmapReusePool} - The pool of reusable
+	 *            {@link Bitmap}s, used when there is no reusable
+	 *            {@link Bitmap}. Null-safe.
+	 * @return {@link Bitmap} - The decoded image, or null on failure.
+	 * @since 1.3.0
+	 */
+	@Nullable
+	private static Bitmap decodeSampledBitmap(@NonNull String imagePath, int reqWidth, int reqHeight,
+											  @Nullable Bitmap.Config config, @Nullable Bitmap reusable,
+											  @Nullable BitmapReusePool pool) {
+
+		final String methodName = "decodeSampledBitmap";
+
+		if (InitCheck.pass(TAG, methodName, imagePath, reqWidth, reqHeight)) {
+
+			final Options options = new Options();
+			options.inJustDecodeBounds = true;
+			BitmapFactory.decodeFile(imagePath, options);
+			if (options.outWidth <= 0 || options.outHeight <= 0) {
+				Debug.warn(TAG, "Cannot read the image bounds of " + imagePath, methodName);
+				return null;
+			}
+
+			options.inJustDecodeBounds = false;
+			final int inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight, reqWidth, reqHeight);
+			options.inSampleSize = inSampleSize;
+			if (config != null) {
+				options.inPreferredConfig = config;
+			}
+
+			Bitmap candidate = reusable;
+			final boolean pooled = candidate == null && pool != null
+					&& (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT || inSampleSize == 1);
+			if (pooled) {
+				candidate = pool.getDirty((options.outWidth + inSampleSize - 1) / inSampleSize,
+						(options.outHeight + inSampleSize - 1) / inSampleSize, options.inPreferredConfig);
+			}
+			if (candidate != null && canReuseBitmap(candidate, options.outWidth, options.outHeight,
+					inSampleSize, options.inPreferredConfig)) {
+				options.inMutable = true;
+				options.inBitmap = candidate;
+			}
+
+			Bitmap result = null;
+			try {
+				result = BitmapFactory.decodeFile(imagePath, options);
+				if (result == null && options.inBitmap != null) {
+					// The decoder may refuse the reusable bitmap, e.g. for unsupported formats,
+					// and reports it only by the null result
+					Debug.warn(TAG, "Cannot decode into the reusable Bitmap " + imagePath, methodName);
+					options.inBitmap = null;
+					result = BitmapFactory.decodeFile(imagePath, options);
+				}
+			} catch (final OutOfMemoryError e) {
+				Debug.error(TAG, "decoding the image", methodName, e);
+			}
+
+			// The pooled bitmap goes back, unless the image was decoded into it
+			if (pooled && result != candidate) {
+				pool.put(candidate);
+			}
+			return result;
+		}
+		return null;
+	}
+
+	// =================================================================================================================================
+
+	/**
+	 * Checks whether the memory of a {@link Bitmap} can be reused by the
+	 * decoder, as {@link Options#inBitmap}, for an image with the given size.
+	 * On API 19 and above, the {@link Bitmap} allocation should be big enough
+	 * for the sampled image. Below API 19, the {@link Bitmap} should have
+	 * exactly the same size, and the image should not be sampled.
+	 *
+	 * @param reusable
+	 *            {@link Bitmap} - The candidate {@link Bitmap}.
+	 * @param width
+	 *            int - The width of the image file.
+	 * @param height
+	 *            int - The height of the image file.
+	 * @param inSampleSize
+	 *            int - The sample size the image will be decoded with.
+	 * @param config
+	 *            {@link Bitmap.Config} - The config the image will be decoded
+	 *            with.
+	 * @return boolean - True if the {@link Bitmap} can be reused.
+	 * @since 1.3.0
+	 */
+	public static boolean canReuseBitmap(@NonNull Bitmap reusable, int width, int height, int inSampleSize,
+										 @Nullable Bitmap.Config config) {
+
+		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.HONEYCOMB || reusable.isRecycled()
+				|| !reusable.isMutable() || inSampleSize <= 0) {
+			return false;
+		}
+
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+			final long sampledWidth = (width + inSampleSize - 1) / inSampleSize;
+			final long sampledHeight = (height + inSampleSize - 1) / inSampleSize;
+			final int bytesPerPixel = WaterMarkRenderer.bytesPerPixel(
+					(config != null) ? config : Bitmap.Config.ARGB_8888);
+			return sampledWidth * sampledHeight * bytesPerPixel <= reusable.getAllocationByteCount();
+		}
+		return inSampleSize == 1 && reusable.getWidth() == width && reusable.getHeight() == height
+				&& (config == null || reusable.getConfig() == config);
+	}
 }
@@ -24,24 +24,39 @@ import android.content.ContentResolver;
 import android.content.ContentUris;
 import android.content.Context;
 import android.content.res.Resources;
+import android.database.ContentObserver;
 import android.database.Cursor;
+import android.graphics.Rect;
 import android.net.Uri;
 import android.os.Build;
 import android.os.Environment;
 import android.provider.DocumentsContract;
 import android.provider.MediaStore;
+import android.util.LruCache;
 import android.widget.ImageView;
 
 import androidx.annotation.AnyRes;
+import androidx.annotation.MainThread;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
 
 import com.bumptech.glide.Glide;
 
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Official Git repository at https://github.com/marulka/android-utils
  *
  * @author Nikola Georgiev
- * @version 1.06
+ * @version 1.08
  * @since 1.0
  */
 public class ImageViewUtils {
@@ -53,6 +68,102 @@ public class ImageViewUtils {
      */
     private static final String TAG = "ImageViewUtils";
 
+    /**
+     * The amount of image dimensions kept by the dimensions cache.
+     *
+     * @since 1.3.0
+     */
+    public static final int DIMENS_CACHE_SIZE = 128;
+
+    /**
+     * The dimensions of the recently shown images, keyed by the image path.
+     * The last modification time of the file is kept with the dimensions and
+     * checked away from the main thread, so a changed file is probed again.
+     *
+     * @since 1.3.0
+     */
+    private static final LruCache<String, ProbedDimens> sDimensCache = new LruCache<>(DIMENS_CACHE_SIZE);
+
+    /**
+     * The amount of resolved file paths kept by the path cache.
+     *
+     * @since 1.3.0
+     */
+    public static final int PATH_CACHE_SIZE = 256;
+
+    /**
+     * The maximum amount of ids in a single batch query, which is the default
+     * limit of the bound variables in a SQLite statement.
+     *
+     * @since 1.3.0
+     */
+    public static final int MAX_QUERY_ARGS = 999;
+
+    /**
+     * The file paths of the recently resolved {@link Uri}s. The whole cache is
+     * dropped when the media or downloads providers report a change, see
+     * {@link #registerPathObserver(Context)}.
+     *
+     * @since 1.3.0
+     */
+    private static final LruCache<Uri, String> sPathCache = new LruCache<>(PATH_CACHE_SIZE);
+
+    /**
+     * The observer which drops the path cache, registered with the first
+     * resolved {@link Uri}. Null until then.
+     *
+     * @since 1.3.0
+     */
+    private static ContentObserver sPathObserver;
+
+    /**
+     * Counts the drops of the path cache. A path resolved while the cache was
+     * dropped may be stale, so it is cached only if the generation did not
+     * change during the query.
+     *
+     * @since 1.3.0
+     */
+    private static final AtomicInteger sPathGeneration = new AtomicInteger();
+
+    /**
+     * Holds the executor, which reads the image dimensions away from the main
+     * thread. The executor is created with the first probe.
+     *
+     * @since 1.3.0
+     */
+    private static final class ProbeExecutorHolder {
+
+        static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(2, new ThreadFactory() {
+
+            private final AtomicInteger mCount = new AtomicInteger();
+
+            @Override
+            public Thread newThread(@NonNull final Runnable runnable) {
+
+                final Thread thread = new Thread(runnable, TAG + '-' + mCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * The cached dimensions of an image, with the last modification time of
+     * the file when it was probed.
+     *
+     * @since 1.3.0
+     */
+    private static final class ProbedDimens {
+
+        final Rect mDimens;
+        final long mLastModified;
+
+        ProbedDimens(@NonNull final Rect dimens, final long lastModified) {
+            mDimens = dimens;
+            mLastModified = lastModified;
+        }
+    }
+
     /**
      * Main constructor with private accessor to prevent instantiating the class.
      *
@@ -128,111 +239,372 @@ public class ImageViewUtils {
      *                 to the {@link ImageView}.
      * @since 1.02
      */
-    public static void setImageByPath(@NonNull Activity activity, @NonNull ImageView view, @NonNull String path) {
+    @MainThread
+    public static void setImageByPath(@NonNull final Activity activity, @NonNull final ImageView view,
+                                      @NonNull final String path) {
 
         if (InitCheck.pass(TAG, "setImageByPath", activity, view, path)) {
 
-            // Will get scale ratio only if the image is bigger than image view.
-            final float sizeMultiplier = ImageScaleUtils.getScaleRatio(activity, path);
+            // Will set the Tag to be the image path, so a late probe can tell the view was rebound.
+            view.setTag(path);
+
+            final Rect screenDimens = ImageUtils.getScreenDimens(activity);
+            final ProbedDimens cached = sDimensCache.get(path);
+            if (cached != null) {
+                loadImage(activity, view, path, ImageUtils.getScaleRatio(cached.mDimens, screenDimens));
+            }
 
-            Glide.with(activity) // The activity context.
-                    .load(path) // Loads the image by path.
-                    .thumbnail(0.3F) // Scaled thumbnail for preload.
-                    .fitCenter() // Fits the image to fit in the center.
-                    .sizeMultiplier(sizeMultiplier) // Scales the loaded image
-                    .into(view); // The ImageView to load the image to.
+            // Reading the file hits the disk, so it should not stall the main thread. The cached
+            // dimensions are only revalidated, and the image is probed again if the file changed.
+            // The queued probe does not keep the activity and the view alive.
+            final WeakReference<Activity> activityRef = new WeakReference<>(activity);
+            final WeakReference<ImageView> viewRef = new WeakReference<>(view);
+            ProbeExecutorHolder.EXECUTOR.execute(new Runnable() {
 
-            // Will set the Tag to be the image path.
-            view.setTag(path);
+                @Override
+                public void run() {
+
+                    // The view may have been rebound while the probe was queued, e.g. on a fling.
+                    final ImageView probedView = viewRef.get();
+                    if (probedView == null || !path.equals(probedView.getTag()) || activityRef.get() == null) {
+                        return;
+                    }
+
+                    final long lastModified = new File(path).lastModified();
+                    if (cached != null && cached.mLastModified == lastModified) {
+                        return;
+                    }
+
+                    final Rect dimens = ImageUtils.getImageDimens(path);
+                    if (dimens != null && dimens.top > 0 && dimens.left > 0) {
+                        sDimensCache.put(path, new ProbedDimens(dimens, lastModified));
+                    } else {
+                        sDimensCache.remove(path);
+                    }
+                    final float sizeMultiplier = (dimens != null) ? ImageUtils.getScaleRatio(dimens, screenDimens) : 1.0F;
+
+                    probedView.post(new Runnable() {
+
+                        @Override
+                        public void run() {
+
+                            final Activity boundActivity = activityRef.get();
+                            final ImageView boundView = viewRef.get();
+                            if (boundView != null && path.equals(boundView.getTag()) && isAlive(boundActivity)) {
+                                loadImage(boundActivity, boundView, path, sizeMultiplier);
+                            }
+                        }
+                    });
+                }
+            });
         }
 
     }
 
     // =================================================================================================================================
 
+    /**
+     * Loads an image by path into the {@link ImageView} with {@link Glide}.
+     *
+     * @param activity       {@link Activity} - The activity context.
+     * @param view           {@link ImageView} - The target {@link ImageView}.
+     * @param path           {@link String} - The path of the image.
+     * @param sizeMultiplier float - The scale ratio of the loaded image.
+     * @since 1.3.0
+     */
+    @MainThread
+    private static void loadImage(@NonNull Activity activity, @NonNull ImageView view, @NonNull String path,
+                                  float sizeMultiplier) {
+
+        Glide.with(activity) // The activity context.
+                .load(path) // Loads the image by path.
+                .thumbnail(0.3F) // Scaled thumbnail for preload.
+                .fitCenter() // Fits the image to fit in the center.
+                .sizeMultiplier(sizeMultiplier) // Scales the loaded image
+                .into(view); // The ImageView to load the image to.
+
+        // Glide may have replaced the Tag, so the image path is set again.
+        view.setTag(path);
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Checks whether an {@link Activity} can still start image loads.
+     *
+     * @param activity {@link Activity} - The activity to check.
+     * @return boolean - False if the activity is finishing or destroyed.
+     * @since 1.3.0
+     */
+    private static boolean isAlive(@Nullable Activity activity) {
+
+        if (activity == null || activity.isFinishing()) {
+            return false;
+        }
+        return Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR1 || !activity.isDestroyed();
+    }
+
+    // =================================================================================================================================
+
     /**
      * Gets the file path by a given {@link Uri} of the file. Supported file://
-     * and content:// Uri files.
+     * and content:// Uri files. The resolved paths are cached, so binding the
+     * same {@link Uri} again does not query the {@link ContentResolver}. The
+     * cache is dropped when the media or downloads providers change.
      *
      * @param context {@link Context}
      * @param uri     {@link Uri}
      * @return {@link String}
      * @since 1.0
      */
-    @SuppressLint("NewApi")
     public static String getFilePathByUri(@NonNull Context context, @NonNull Uri uri) {
 
         if (InitCheck.pass(TAG, "getPathByUri", context, uri)) {
 
-            // check here to KITKAT or new version
-            final boolean isKitKat = Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT;
+            String path = sPathCache.get(uri);
+            if (path == null) {
+                // The observer is registered before the query, so a change during the query is seen
+                registerPathObserver(context);
+                final int generation = sPathGeneration.get();
+                path = resolveFilePathByUri(context, uri);
+                if (path != null) {
+                    synchronized (sPathCache) {
+                        if (generation == sPathGeneration.get()) {
+                            sPathCache.put(uri, path);
+                        }
+                    }
+                }
+            }
+            return path;
+        }
+
+        return null;
+    }
 
-            // DocumentProvider
-            if (isKitKat && DocumentsContract.isDocumentUri(context, uri)) {
+    // =================================================================================================================================
 
-                // ExternalStorageProvider
-                if (isExternalStorageDocument(uri)) {
+    /**
+     * Resolves multiple media ids of a single {@link MediaStore} table to file
+     * paths. Instead of a query per id, the ids are resolved by a single
+     * {@code _id IN (...)} query per {@link #MAX_QUERY_ARGS} ids. The resolved
+     * paths are also put in the cache of
+     * {@link #getFilePathByUri(Context, Uri)}, keyed by the {@link Uri} of
+     * every id.
+     *
+     * @param context    {@link Context} - The context of the application.
+     * @param contentUri {@link Uri} - The content {@link Uri} of the table, e.g.
+     *                   {@link MediaStore.Images.Media#EXTERNAL_CONTENT_URI}.
+     * @param ids        long[] - The media ids to resolve.
+     * @return {@link Map} - The file paths by media id. The ids which were not
+     * found are missing, or null on failure.
+     * @since 1.3.0
+     */
+    @Nullable
+    @WorkerThread
+    public static Map<Long, String> getFilePathsByIds(@NonNull Context context, @NonNull Uri contentUri,
+                                                      @NonNull long[] ids) {
 
-                    final String docId = DocumentsContract.getDocumentId(uri);
-                    final String[] split = docId.split(":");
-                    final String type = split[0];
+        final String methodName = "getFilePathsByIds";
 
-                    if ("primary".equalsIgnoreCase(type)) {
-                        return Environment.getExternalStorageDirectory() + "/" + split[1];
-                    }
+        if (InitCheck.pass(TAG, methodName, context, contentUri, ids)) {
 
-                }
+            registerPathObserver(context);
+            final int generation = sPathGeneration.get();
 
-                // DownloadsProvider
-                if (isDownloadsDocument(uri)) {
+            final Map<Long, String> paths = new HashMap<>(ids.length * 2);
+            final String[] projection = {MediaStore.MediaColumns._ID, MediaStore.MediaColumns.DATA};
 
-                    final String id = DocumentsContract.getDocumentId(uri);
-                    final Uri contentUri = ContentUris.withAppendedId(
-                            Uri.parse("content://downloads/public_downloads"), Long.valueOf(id));
+            for (int start = 0; start < ids.length; start += MAX_QUERY_ARGS) {
 
-                    return getDataColumn(context, contentUri, null, null);
+                final int count = Math.min(MAX_QUERY_ARGS, ids.length - start);
+                final StringBuilder selection = new StringBuilder(MediaStore.MediaColumns._ID.length() + count * 2 + 8)
+                        .append(MediaStore.MediaColumns._ID).append(" IN (");
+                final String[] selectionArgs = new String[count];
+                for (int i = 0; i < count; i++) {
+                    selection.append((i == 0) ? "?" : ",?");
+                    selectionArgs[i] = Long.toString(ids[start + i]);
                 }
+                selection.append(')');
+
+                Cursor cursor = null;
+                try {
+                    cursor = context.getContentResolver().query(contentUri, projection, selection.toString(),
+                            selectionArgs, null);
+                    if (cursor == null) {
+                        Debug.warn(TAG, "The query of " + contentUri + " returned no cursor.", methodName);
+                        return null;
+                    }
 
-                // MediaProvider
-                if (isMediaDocument(uri)) {
+                    final int idIndex = cursor.getColumnIndexOrThrow(MediaStore.MediaColumns._ID);
+                    final int dataIndex = cursor.getColumnIndexOrThrow(MediaStore.MediaColumns.DATA);
+                    while (cursor.moveToNext()) {
 
-                    final String docId = DocumentsContract.getDocumentId(uri);
-                    final String[] split = docId.split(":");
-                    final String type = split[0];
+                        final long id = cursor.getLong(idIndex);
+                        final String path = cursor.getString(dataIndex);
+                        if (path != null) {
+                            paths.put(id, path);
+                        }
+                    }
+                } catch (final Exception e) {
+                    Debug.error(TAG, "moving through the cursor", methodName, e);
+                    return null;
+                } finally {
+                    if (cursor != null) {
+                        cursor.close();
+                    }
+                }
+            }
 
-                    Uri contentUri = null;
-                    if ("image".equals(type)) {
-                        contentUri = MediaStore.Images.Media.EXTERNAL_CONTENT_URI;
-                    } else if ("video".equals(type)) {
-                        contentUri = MediaStore.Video.Media.EXTERNAL_CONTENT_URI;
-                    } else if ("audio".equals(type)) {
-                        contentUri = MediaStore.Audio.Media.EXTERNAL_CONTENT_URI;
+            synchronized (sPathCache) {
+                if (generation == sPathGeneration.get()) {
+                    for (final Map.Entry<Long, String> entry : paths.entrySet()) {
+                        sPathCache.put(ContentUris.withAppendedId(contentUri, entry.getKey()), entry.getValue());
                     }
+                }
+            }
+            return paths;
+        }
+
+        return null;
+    }
 
-                    final String selection = "_id=?";
-                    final String[] selectionArgs = new String[]{split[1]};
+    // =================================================================================================================================
+
+    /**
+     * Drops all the cached file paths.
+     *
+     * @since 1.3.0
+     */
+    public static void clearFilePathCache() {
+        dropPathCache();
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Registers, only once, an observer which drops the path cache when any
+     * {@link MediaStore} or downloads content changes, because a changed row
+     * may point to another file.
+     *
+     * @param context {@link Context} - Any context, the application context is
+     *                used for the registration.
+     * @since 1.3.0
+     */
+    private static synchronized void registerPathObserver(@NonNull Context context) {
+
+        if (sPathObserver != null) {
+            return;
+        }
+        sPathObserver = new ContentObserver(null) {
 
-                    return getDataColumn(context, contentUri, selection, selectionArgs);
+            @Override
+            public void onChange(boolean selfChange) {
+                dropPathCache();
+            }
+        };
+
+        final ContentResolver resolver = context.getApplicationContext().getContentResolver();
+        resolver.registerContentObserver(Uri.parse("content://" + MediaStore.AUTHORITY), true, sPathObserver);
+        resolver.registerContentObserver(Uri.parse("content://downloads"), true, sPathObserver);
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Drops all the cached file paths, and starts a new generation, so the
+     * paths of the queries still running are not cached.
+     *
+     * @since 1.3.0
+     */
+    private static void dropPathCache() {
+
+        synchronized (sPathCache) {
+            sPathGeneration.incrementAndGet();
+            sPathCache.evictAll();
+        }
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Resolves the file path by a given {@link Uri} of the file, without the
+     * path cache, see {@link #getFilePathByUri(Context, Uri)}.
+     *
+     * @param context {@link Context}
+     * @param uri     {@link Uri}
+     * @return {@link String}
+     * @since 1.3.0
+     */
+    @SuppressLint("NewApi")
+    private static String resolveFilePathByUri(@NonNull Context context, @NonNull Uri uri) {
+
+        // check here to KITKAT or new version
+        final boolean isKitKat = Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT;
+
+        // DocumentProvider
+        if (isKitKat && DocumentsContract.isDocumentUri(context, uri)) {
+
+            // ExternalStorageProvider
+            if (isExternalStorageDocument(uri)) {
+
+                final String docId = DocumentsContract.getDocumentId(uri);
+                final String[] split = docId.split(":");
+                final String type = split[0];
+
+                if ("primary".equalsIgnoreCase(type)) {
+                    return Environment.getExternalStorageDirectory() + "/" + split[1];
                 }
 
             }
 
-            // MediaStore (and general)
-            if ("content".equalsIgnoreCase(uri.getScheme())) {
+            // DownloadsProvider
+            if (isDownloadsDocument(uri)) {
 
-                // Return the remote address
-                if (isGooglePhotosUri(uri)) return uri.getLastPathSegment();
+                final String id = DocumentsContract.getDocumentId(uri);
+                final Uri contentUri = ContentUris.withAppendedId(
+                        Uri.parse("content://downloads/public_downloads"), Long.valueOf(id));
 
-                return getDataColumn(context, uri, null, null);
+                return getDataColumn(context, contentUri, null, null);
             }
 
-            // File
-            if ("file".equalsIgnoreCase(uri.getScheme())) {
-                return uri.getPath();
+            // MediaProvider
+            if (isMediaDocument(uri)) {
+
+                final String docId = DocumentsContract.getDocumentId(uri);
+                final String[] split = docId.split(":");
+                final String type = split[0];
+
+                Uri contentUri = null;
+                if ("image".equals(type)) {
+                    contentUri = MediaStore.Images.Media.EXTERNAL_CONTENT_URI;
+                } else if ("video".equals(type)) {
+                    contentUri = MediaStore.Video.Media.EXTERNAL_CONTENT_URI;
+                } else if ("audio".equals(type)) {
+                    contentUri = MediaStore.Audio.Media.EXTERNAL_CONTENT_URI;
+                }
+
+                final String selection = "_id=?";
+                final String[] selectionArgs = new String[]{split[1]};
+
+                return getDataColumn(context, contentUri, selection, selectionArgs);
             }
 
         }
 
+        // MediaStore (and general)
+        if ("content".equalsIgnoreCase(uri.getScheme())) {
+
+            // Return the remote address
+            if (isGooglePhotosUri(uri)) return uri.getLastPathSegment();
+
+            return getDataColumn(context, uri, null, null);
+        }
+
+        // File
+        if ("file".equalsIgnoreCase(uri.getScheme())) {
+            return uri.getPath();
+        }
+
         return null;
     }
 
@@ -18,16 +18,22 @@ package com.ntechniks.nstudios.androidutils;
  *
  */
 
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.CharUtils;
+import org.apache.commons.lang3.Validate;
 
 import androidx.annotation.NonNull;
 
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Official Git repository at https://github.com/marulka/android-utils
  *
  * @author Nikola Georgiev
- * @version 1.3
+ * @version 1.5
  * @since 1.0.0
  */
 public class NameUtils {
@@ -57,6 +63,37 @@ public class NameUtils {
     private static char[] sInvalidChars = new char[]{'@', '#', '$', '%', '&', '*', '-', '+', '(', ')', '!', '"',
             '\'', ':', ';', '/', '?', '~', '`', '|', '{', '}', '=', '[', ']', '<', '>', '^', '.', ',', '\\', ' '};
 
+    /**
+     * Lookup table for the ASCII chars, which tells whether a char is one of
+     * the {@link #sInvalidChars}, so every char is checked with a single array
+     * access.
+     *
+     * @since 1.3.0
+     */
+    private static final boolean[] sInvalidTable = new boolean[128];
+
+    static {
+        for (final char ch : sInvalidChars) {
+            sInvalidTable[ch] = true;
+        }
+    }
+
+    /**
+     * The default amount of names kept by the escape cache.
+     *
+     * @since 1.3.0
+     */
+    public static final int DEFAULT_ESCAPE_CACHE_SIZE = 256;
+
+    /**
+     * Optional cache with the recently escaped names. Null when the cache is
+     * disabled. The cache is replaced as a whole when resized, so the threads
+     * still using the previous cache are not disturbed.
+     *
+     * @since 1.3.0
+     */
+    private static volatile EscapeCache sEscapeCache;
+
     // =================================================================================================================================
 
     /**
@@ -78,31 +115,266 @@ public class NameUtils {
      */
     public static String escape(@NonNull String name) {
 
-        final String methodName = "escape";
+        // A plain check, since the check utilities build the log text on every call.
+        if (name == null || name.isEmpty()) {
+            Check.validString(TAG, "string String", "escape", name);
+            return Empty.string();
+        }
+
+        final EscapeCache cache = sEscapeCache;
+        return (cache != null) ? cache.get(name) : escapeImpl(name);
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Escapes the special chars of a valid name, see {@link #escape(String)}.
+     *
+     * @param name {@link String} - The non-empty name to escape.
+     * @return {@link String} - The filtered {@link String} without special
+     * chars.
+     * @since 1.3.0
+     */
+    @NonNull
+    private static String escapeImpl(@NonNull String name) {
+
+        /*
+         * If the first char is different than Alphabetic, it will replace
+         * it with down slash ('_')
+         */
+        final boolean needsPrefix = !CharUtils.isAsciiAlpha(name.charAt(0));
+        final int firstInvalid = indexOfInvalid(name);
+        if (!needsPrefix && firstInvalid < 0) {
+            return name;
+        }
+
+        final int length = name.length();
+        final StringBuilder resultString = new StringBuilder(length + 16);
+        if (needsPrefix) {
+            resultString.append('_');
+        }
+        if (firstInvalid < 0) {
+            return resultString.append(name).toString();
+        }
+        resultString.append(name, 0, firstInvalid);
+        for (int i = firstInvalid; i < length; i++) {
+
+            final char ch = name.charAt(i);
+            if (isInvalid(ch)) {
+                resultString.append('_').append((int) ch).append('_');
+            } else {
+                resultString.append(ch);
+            }
+        }
+        return resultString.toString();
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Enables the escape cache with the {@link #DEFAULT_ESCAPE_CACHE_SIZE}, see
+     * {@link #enableEscapeCache(int)}.
+     *
+     * @since 1.3.0
+     */
+    public static void enableEscapeCache() {
+        enableEscapeCache(DEFAULT_ESCAPE_CACHE_SIZE);
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Enables a bounded cache in front of {@link #escape(String)}, so the names
+     * which are escaped again and again cost a single hash lookup. The cache
+     * hits take no lock, so many query threads can share the cache. The least
+     * recently used names are dropped when the cache is full. Calling this
+     * method again replaces the cache with a new empty one with the given
+     * size, and resets the hit and miss counters.
+     *
+     * @param maxSize int - The maximum amount of names kept by the cache.
+     * @throws IllegalArgumentException - In case the maxSize is not positive.
+     * @since 1.3.0
+     */
+    public static void enableEscapeCache(int maxSize) {
+
+        Validate.isTrue(maxSize > 0, "The maxSize should be positive.");
+
+        sEscapeCache = new EscapeCache(maxSize);
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Disables the escape cache and drops all the cached names.
+     *
+     * @since 1.3.0
+     */
+    public static void disableEscapeCache() {
+        sEscapeCache = null;
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * @return boolean - True if the escape cache is enabled.
+     * @since 1.3.0
+     */
+    public static boolean isEscapeCacheEnabled() {
+        return sEscapeCache != null;
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * @return int - The amount of names found in the escape cache since it was
+     * enabled, or 0 if the cache is disabled. The count is approximate while
+     * other threads use the cache.
+     * @since 1.3.0
+     */
+    public static int getEscapeCacheHitCount() {
+
+        final EscapeCache cache = sEscapeCache;
+        return (cache != null) ? cache.hitCount() : 0;
+    }
 
-        if (Check.validString(TAG, "string String", methodName, name)) {
+    // =================================================================================================================================
 
-            /*
-             * If the first char is different than Alphabetic, it will replace
-             * it with down slash ('_')
-             */
-            final char firstChar = name.charAt(0);
-            final StringBuilder resultString =
-                    new StringBuilder((!CharUtils.isAsciiAlpha(firstChar)) ? "_" : Empty.string());
+    /**
+     * @return int - The amount of names escaped and put in the escape cache
+     * since it was enabled, or 0 if the cache is disabled.
+     * @since 1.3.0
+     */
+    public static int getEscapeCacheMissCount() {
 
-            for (int i = 0; i < name.length(); i++) {
-                try {
+        final EscapeCache cache = sEscapeCache;
+        return (cache != null) ? cache.missCount() : 0;
+    }
 
-                    final char ch = name.charAt(i);
-                    resultString.append((!ArrayUtils.contains(sInvalidChars, ch)) ? String.valueOf(ch) : ("_"
-                            + (int) ch + "_"));
+    // =================================================================================================================================
+
+    /**
+     * Checks whether a char is not allowed in the table names and column names.
+     *
+     * @param ch char - The char to check.
+     * @return boolean - True if the char should be escaped.
+     * @since 1.3.0
+     */
+    private static boolean isInvalid(char ch) {
+        return ch < sInvalidTable.length && sInvalidTable[ch];
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Finds the first char in the name, which should be escaped.
+     *
+     * @param name {@link String} - The name to check.
+     * @return int - The index of the first invalid char, or -1 if there is no
+     * such char.
+     * @since 1.3.0
+     */
+    private static int indexOfInvalid(@NonNull String name) {
+
+        for (int i = 0; i < name.length(); i++) {
+            if (isInvalid(name.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
 
-                } catch (final Exception e) {
-                    Debug.error(TAG, "replace special chars with their int value", methodName, e);
+    // =================================================================================================================================
+
+    /**
+     * Bounded cache of escaped names. The names are kept in a
+     * {@link ConcurrentHashMap}, so a hit takes no lock. Every lookup takes a
+     * tick of a shared clock, which marks the entry as recently used. When the
+     * cache grows over its maximum size, a single thread drops the least
+     * recently used names, down to 7/8 of the maximum size, so the sorting of
+     * the ticks is paid once per many misses.
+     *
+     * @since 1.3.0
+     */
+    private static final class EscapeCache {
+
+        private final int mMaxSize;
+        private final int mTrimSize;
+        private final ConcurrentHashMap<String, Entry> mEntries;
+        private final AtomicLong mTicks = new AtomicLong();
+        private final AtomicInteger mMisses = new AtomicInteger();
+
+        EscapeCache(int maxSize) {
+            mMaxSize = maxSize;
+            mTrimSize = maxSize - maxSize / 8;
+            mEntries = new ConcurrentHashMap<>(Math.min(maxSize, DEFAULT_ESCAPE_CACHE_SIZE) * 2);
+        }
+
+        @NonNull
+        String get(@NonNull String name) {
+
+            final long tick = mTicks.incrementAndGet();
+            final Entry entry = mEntries.get(name);
+            if (entry != null) {
+                entry.mLastAccess = tick;
+                return entry.mEscaped;
+            }
+
+            mMisses.incrementAndGet();
+            final String escaped = escapeImpl(name);
+            mEntries.put(name, new Entry(escaped, tick));
+            if (mEntries.size() > mMaxSize) {
+                trim();
+            }
+            return escaped;
+        }
+
+        int hitCount() {
+            return (int) (mTicks.get() - mMisses.get());
+        }
+
+        int missCount() {
+            return mMisses.get();
+        }
+
+        private synchronized void trim() {
+
+            final int size = mEntries.size();
+            if (size <= mMaxSize) {
+                return;
+            }
+            // The ticks are copied first, since the hits keep updating them.
+            final long[] ticks = new long[size];
+            int count = 0;
+            for (final Entry entry : mEntries.values()) {
+                if (count == ticks.length) {
+                    break;
                 }
+                ticks[count++] = entry.mLastAccess;
+            }
+            final int evictCount = count - mTrimSize;
+            if (evictCount <= 0) {
+                return;
+            }
+            Arrays.sort(ticks, 0, count);
+            final long threshold = ticks[evictCount - 1];
+
+            // The names used again since the copy have newer ticks, so they stay.
+            for (final Iterator<Entry> iterator = mEntries.values().iterator(); iterator.hasNext(); ) {
+                if (iterator.next().mLastAccess <= threshold) {
+                    iterator.remove();
+                }
+            }
+        }
+
+        private static final class Entry {
+
+            final String mEscaped;
+            volatile long mLastAccess;
+
+            Entry(@NonNull String escaped, long lastAccess) {
+                mEscaped = escaped;
+                mLastAccess = lastAccess;
             }
-            return  resultString.toString();
         }
-        return Empty.string();
     }
 }
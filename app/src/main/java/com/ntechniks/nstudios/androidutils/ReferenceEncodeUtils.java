@@ -18,7 +18,6 @@ package com.ntechniks.nstudios.androidutils;
  *
  */
 
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -27,11 +26,13 @@ import android.os.Bundle;
 
 import androidx.annotation.NonNull;
 
+import org.apache.commons.lang3.Validate;
+
 /**
  * Official Git repository at https://github.com/marulka/android-utils
  *
  * @author Nikola Georgiev
- * @version 1.6
+ * @version 1.8
  * @since 1.1.0
  */
 public class ReferenceEncodeUtils {
@@ -73,6 +74,44 @@ public class ReferenceEncodeUtils {
      * @since 1.0
      */
     public static final String KEY_TOTAL_COUNT = "count";
+    /**
+     * The biggest multiplier a long request code can have, see
+     * {@link #encodeLong(int, int, int)}. Every block of such code can have up
+     * to 6 digits.
+     *
+     * @since 1.3.0
+     */
+    public static final int MAX_LONG_MULTIPLIER = 6;
+    /**
+     * The amount of bits each field takes in the packed request codes, see
+     * {@link #encodePacked(int, int, int)}, and in the packed decoding result,
+     * see {@link #decodeToLong(long)}.
+     *
+     * @since 1.3.0
+     */
+    public static final int PACKED_FIELD_BITS = 21;
+    /**
+     * The biggest value a single field can have in the packed request codes,
+     * and in the packed decoding result.
+     *
+     * @since 1.3.0
+     */
+    public static final int PACKED_FIELD_MAX = (1 << PACKED_FIELD_BITS) - 1;
+
+    /**
+     * The powers of ten, which fit in a long, used to cut the decimal blocks
+     * of the request codes without converting them to strings.
+     *
+     * @since 1.3.0
+     */
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
 
     // =================================================================================================================================
 
@@ -182,30 +221,25 @@ public class ReferenceEncodeUtils {
      */
     private static int getMultiplier(int index, int pageId, int totalCount) {
 
-        final String methodName = "getMultiplier";
-        int multiplier = -1; // Fail value.
-
-        if (InitCheck.pass(TAG, methodName, methodName, pageId, totalCount)) {
-
-            final int maxInt = Math.max(Math.max(index, pageId), totalCount);
-            final String maxIntAsString = String.valueOf(maxInt);
-            multiplier = maxIntAsString.length();
-        }
-        return multiplier;
+        final int maxInt = Math.max(Math.max(index, pageId), totalCount);
+        return digitCount(maxInt);
     }
 
     // =================================================================================================================================
 
     /**
      * Encodes the page Id, total count, and list item index, using the
-     * multiplier. The result is a 32bit integer.
+     * multiplier. The result is a 32bit integer. The blocks are put together
+     * with plain arithmetic, every block is shifted by the power of ten, which
+     * corresponds to its position in the decimal form of the code.
      *
      * @param pageId     int - The page number.
      * @param totalCount int - The total pages count.
      * @param index      int - The list item index.
      * @param multiplier int - The multiplier, which represents the digits count of the
      *                   biggest number of this parameters.
-     * @return int - Returns encoded 32bit integer.
+     * @return int - Returns encoded 32bit integer, or -1 in case the
+     * parameters are invalid, or the code does not fit in 32bit integer.
      * @since 1.0
      */
     private static int encode(int pageId, int totalCount, int index, int multiplier) {
@@ -213,60 +247,217 @@ public class ReferenceEncodeUtils {
         final String methodName = "encode";
         int keyCode = -1;
 
-        if (InitCheck.pass(TAG, methodName, methodName, pageId, totalCount)) {
+        if (validFields(index, pageId, totalCount, methodName)) {
 
-            String i = String.valueOf(index);
-            String page = String.valueOf(pageId);
-            String count = String.valueOf(totalCount);
+            final long code = encodeDecimal(index, pageId, totalCount, multiplier);
+            if (code > Integer.MAX_VALUE) {
+                Debug.warn(TAG, "The request code with multiplier " + multiplier
+                        + " does not fit in 32bit integer.", methodName);
+                return keyCode;
+            }
+            keyCode = (int) code;
+        }
+        return keyCode;
+    }
 
-            final char[] iArray = i.toCharArray();
-            final char[] pageArray = page.toCharArray();
-            final char[] countArray = count.toCharArray();
+    // =================================================================================================================================
 
-            i = expandString(multiplier, i, iArray);
-            page = expandString(multiplier, page, pageArray);
-            count = expandString(multiplier, count, countArray);
+    /**
+     * Example: If refNum is "1000/1500", index number is 1, then the encoded
+     * long should be 4000110001500. Blocks break out of this encoded long:
+     * {multiplier}{index}{page}{totalCount} or {4}{0001}{1000}{1500}. The
+     * first digit (multiplier) tells how much digits should a single block
+     * have, up to {@link #MAX_LONG_MULTIPLIER}.
+     *
+     * @param refNum  {@link String} - The reference number of the page.
+     * @param index   int - The list item index.
+     * @param divider char - A specific char, which developer is using in the
+     *                reference number to separate the page number and the total
+     *                pages count.
+     * @return long - The encoded parameters as 64bit integer, or -1 in case the
+     * parameters are invalid.
+     * @since 1.3.0
+     */
+    public static long encodeRequestCodeLong(@NonNull String refNum, int index, char divider) {
 
-            final String requestCodeAsString = String.valueOf(multiplier) + i + page + count;
+        final String methodName = "encodeRequestCodeLong";
+        long key = -1;
 
-            keyCode = Integer.parseInt(requestCodeAsString);
+        if (Check.validString(TAG, "refNum String", methodName, refNum)) {
+
+            final int dividerPos = findDivider(refNum, divider);
+            if (Check.positiveInt(TAG, "dividerPos", methodName, dividerPos)) {
+
+                final int pageId = getPageIdFromString(refNum, dividerPos);
+                final int totalCount = getTotalCount(refNum, dividerPos);
+                key = encodeLong(index, pageId, totalCount);
+            }
         }
-        return keyCode;
+        return key;
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Encodes the list item index, page Id, and total count into a decimal
+     * 64bit request code, in the same layout as the 32bit request codes. The
+     * long codes can hold blocks with up to {@link #MAX_LONG_MULTIPLIER}
+     * digits, so page numbers and counts up to 999999.
+     *
+     * @param index      int - The list item index.
+     * @param pageId     int - The page number.
+     * @param totalCount int - The total pages count.
+     * @return long - The encoded parameters as 64bit integer, or -1 in case the
+     * parameters are invalid, or have too many digits.
+     * @since 1.3.0
+     */
+    public static long encodeLong(int index, int pageId, int totalCount) {
+
+        final String methodName = "encodeLong";
+
+        if (validFields(index, pageId, totalCount, methodName)) {
+
+            final int multiplier = getMultiplier(index, pageId, totalCount);
+            if (multiplier > MAX_LONG_MULTIPLIER) {
+                Debug.warn(TAG, "The multiplier " + multiplier + " is bigger than "
+                        + MAX_LONG_MULTIPLIER + ".", methodName);
+                return -1;
+            }
+            return encodeDecimal(index, pageId, totalCount, multiplier);
+        }
+        return -1;
     }
 
     // =================================================================================================================================
 
     /**
-     * Expands a given {@link String} according to a multiplier. If the base
-     * string has length of 2, but the multiplier equals 3, than the ase string
-     * will be expanded to a string with length of 3 and a char with 0 (zero)
-     * will be added on the newly added char places.
+     * Encodes the list item index, page Id, and total count from a page
+     * reference number into a bit-packed request code, see
+     * {@link #encodePacked(int, int, int)}.
      *
-     * @param multiplier int - The multiplier, which will be used to expand the base
-     *                   {@link String}.
-     * @param baseString {@link String} - The base {@link String} which will be
-     *                   expanded.
-     * @param charArray  char[]
-     * @return {@link String}
-     * @since 1.01
+     * @param refNum  {@link String} - The reference number of the page.
+     * @param index   int - The list item index.
+     * @param divider char - A specific char, which developer is using in the
+     *                reference number to separate the page number and the total
+     *                pages count.
+     * @return long - The bit-packed request code, or -1 in case the parameters
+     * are invalid.
+     * @since 1.3.0
      */
-    private static String expandString(int multiplier, @NonNull String baseString, char[] charArray) {
+    public static long encodeRequestCodePacked(@NonNull String refNum, int index, char divider) {
 
-        if (InitCheck.pass(TAG, "expandString", charArray, multiplier)) {
+        final String methodName = "encodeRequestCodePacked";
+        long key = -1;
 
-            if (charArray.length >= multiplier) {
+        if (Check.validString(TAG, "refNum String", methodName, refNum)) {
 
-                baseString = new String(charArray, multiplier - (baseString.length()), multiplier);
-            } else {
+            final int dividerPos = findDivider(refNum, divider);
+            if (Check.positiveInt(TAG, "dividerPos", methodName, dividerPos)) {
 
-                final char[] newCharArray = new char[multiplier - charArray.length];
-                Arrays.fill(newCharArray, '0');
+                final int pageId = getPageIdFromString(refNum, dividerPos);
+                final int totalCount = getTotalCount(refNum, dividerPos);
+                key = encodePacked(index, pageId, totalCount);
+            }
+        }
+        return key;
+    }
+
+    // =================================================================================================================================
 
-                baseString = new String(newCharArray);
-                baseString += new String(charArray, 0, baseString.length());
+    /**
+     * Encodes the list item index, page Id, and total count into a bit-packed
+     * request code. Every value takes {@link #PACKED_FIELD_BITS} bits: the
+     * list item index is in the highest bits, followed by the page number, and
+     * the total pages count is in the lowest bits. The values can be read back
+     * with {@link #unpackItemIndex(long)}, {@link #unpackPageId(long)}, and
+     * {@link #unpackTotalCount(long)}, without any decoding.
+     *
+     * @param index      int - The list item index, up to {@link #PACKED_FIELD_MAX}.
+     * @param pageId     int - The page number, up to {@link #PACKED_FIELD_MAX}.
+     * @param totalCount int - The total pages count, up to {@link #PACKED_FIELD_MAX}.
+     * @return long - The bit-packed request code, or -1 in case the parameters
+     * are invalid, or out of range.
+     * @since 1.3.0
+     */
+    public static long encodePacked(int index, int pageId, int totalCount) {
+
+        final String methodName = "encodePacked";
+
+        if (validFields(index, pageId, totalCount, methodName)) {
+
+            if (Math.max(Math.max(index, pageId), totalCount) > PACKED_FIELD_MAX) {
+                Debug.warn(TAG, "The packed fields should not be bigger than " + PACKED_FIELD_MAX + ".",
+                        methodName);
+                return -1;
             }
+            return pack(index, pageId, totalCount);
+        }
+        return -1;
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Checks the values of the request code fields: the page number and the
+     * total pages count should be positive, and the list item index should not
+     * be negative.
+     *
+     * @param index      int - The list item index.
+     * @param pageId     int - The page number.
+     * @param totalCount int - The total pages count.
+     * @param methodName {@link String} - The name of the method caller.
+     * @return boolean - True if all the values are valid.
+     * @since 1.3.0
+     */
+    private static boolean validFields(int index, int pageId, int totalCount, @NonNull String methodName) {
+
+        if (Check.positiveInt(TAG, "pageId", methodName, pageId)
+                && Check.positiveInt(TAG, "totalCount", methodName, totalCount)) {
+
+            if (index >= 0) {
+                return true;
+            }
+            Debug.warn(TAG, "The index int has INVALID value (less than 0).", methodName);
+        }
+        return false;
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Puts together the blocks of a decimal request code:
+     * {multiplier}{index}{page}{totalCount}, where every block has exactly
+     * multiplier digits.
+     *
+     * @param index      int - The list item index.
+     * @param pageId     int - The page number.
+     * @param totalCount int - The total pages count.
+     * @param multiplier int - The digits count of every block, up to 6.
+     * @return long - The decimal request code.
+     * @since 1.3.0
+     */
+    private static long encodeDecimal(int index, int pageId, int totalCount, int multiplier) {
+
+        final long blockBase = POWERS_OF_TEN[multiplier];
+        return ((multiplier * blockBase + index) * blockBase + pageId) * blockBase + totalCount;
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Counts the decimal digits of a non-negative number.
+     *
+     * @param value long - The number.
+     * @return int - The digits count, at least 1.
+     * @since 1.3.0
+     */
+    private static int digitCount(long value) {
+
+        int count = 1;
+        while (count < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[count]) {
+            count++;
         }
-        return baseString;
+        return count;
     }
 
     // =================================================================================================================================
@@ -312,38 +503,206 @@ public class ReferenceEncodeUtils {
      */
     public static Map<String, Integer> decode(int requestCode) {
 
-        final String methodName = "decode";
         final Map<String, Integer> valuesMap = new HashMap<String, Integer>();
 
-        try {
-            final String requestCodeAsString = String.valueOf(requestCode);
-            final int multiplier = Integer.valueOf(String.valueOf(requestCodeAsString.charAt(0)));
+        final long packed = decodeToLong(requestCode);
+        if (packed >= 0) {
+            valuesMap.put(KEY_ITEM_INDEX, unpackItemIndex(packed));
+            valuesMap.put(KEY_PAGE_ID, unpackPageId(packed));
+            valuesMap.put(KEY_TOTAL_COUNT, unpackTotalCount(packed));
+        }
+        return valuesMap;
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Decodes a request code into a reusable holder, without any allocations.
+     *
+     * @param requestCode int - The request code which will be decoded.
+     * @param out         {@link DecodedRequestCode} - The holder which will receive
+     *                    the decoded values. All its values are set to -1 in case
+     *                    the request code is not valid.
+     * @return boolean - True if the request code was decoded, false if it is not
+     * valid.
+     * @since 1.3.0
+     */
+    public static boolean decode(int requestCode, @NonNull DecodedRequestCode out) {
+
+        Validate.notNull(out, "The out should be valid object.");
+
+        final long packed = decodeToLong(requestCode);
+        if (packed < 0) {
+            out.set(-1, -1, -1);
+            return false;
+        }
+        out.set(unpackItemIndex(packed), unpackPageId(packed), unpackTotalCount(packed));
+        return true;
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Decodes only the list item index from a request code.
+     *
+     * @param requestCode int - The request code which will be decoded.
+     * @return int - The list item index, or -1 in case the request code is not
+     * valid.
+     * @since 1.3.0
+     */
+    public static int itemIndexOf(int requestCode) {
+
+        final long packed = decodeToLong(requestCode);
+        return (packed >= 0) ? unpackItemIndex(packed) : -1;
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Decodes only the page number from a request code.
+     *
+     * @param requestCode int - The request code which will be decoded.
+     * @return int - The page number, or -1 in case the request code is not valid.
+     * @since 1.3.0
+     */
+    public static int pageIdOf(int requestCode) {
+
+        final long packed = decodeToLong(requestCode);
+        return (packed >= 0) ? unpackPageId(packed) : -1;
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Decodes only the total pages count from a request code.
+     *
+     * @param requestCode int - The request code which will be decoded.
+     * @return int - The total pages count, or -1 in case the request code is not
+     * valid.
+     * @since 1.3.0
+     */
+    public static int totalCountOf(int requestCode) {
+
+        final long packed = decodeToLong(requestCode);
+        return (packed >= 0) ? unpackTotalCount(packed) : -1;
+    }
 
-            if (Check.positiveInt(TAG, "multiplier", methodName, multiplier)) {
+    // =================================================================================================================================
 
-                final int aBeginIndex = 1;
-                final int aEndIndex = aBeginIndex + multiplier;
-                final int bBeginIndex = aEndIndex;
-                final int bEndIndex = bBeginIndex + multiplier;
-                final int cBeginIndex = bEndIndex;
-                final int cEndIndex = cBeginIndex + multiplier;
+    /**
+     * Decodes a request code and packs the decoded values into a single long,
+     * without any allocations. The result has the same layout as the
+     * bit-packed request codes, see {@link #encodePacked(int, int, int)}. The
+     * values can be read with {@link #unpackItemIndex(long)},
+     * {@link #unpackPageId(long)}, and {@link #unpackTotalCount(long)}.
+     *
+     * @param requestCode int - The request code which will be decoded.
+     * @return long - The packed decoded values, or -1 in case the request code
+     * is not valid.
+     * @since 1.3.0
+     */
+    public static long decodeToLong(int requestCode) {
+        return decodeToLong((long) requestCode);
+    }
 
-                final String indexSubstring = requestCodeAsString.substring(aBeginIndex, aEndIndex);
-                final String pageSubstring = requestCodeAsString.substring(bBeginIndex, bEndIndex);
-                final String countSubstring = requestCodeAsString.substring(cBeginIndex, cEndIndex);
+    // =================================================================================================================================
+
+    /**
+     * Decodes a 32bit or 64bit decimal request code and packs the decoded
+     * values into a single long, without any allocations, see
+     * {@link #decodeToLong(int)}.
+     *
+     * @param requestCode long - The request code which will be decoded.
+     * @return long - The packed decoded values, or -1 in case the request code
+     * is not valid.
+     * @since 1.3.0
+     */
+    public static long decodeToLong(long requestCode) {
 
-                final int index = Integer.parseInt(indexSubstring);
-                final int pageId = Integer.parseInt(pageSubstring);
-                final int pagesCount = Integer.parseInt(countSubstring);
+        final String methodName = "decodeToLong";
 
-                valuesMap.put(KEY_ITEM_INDEX, index);
-                valuesMap.put(KEY_PAGE_ID, pageId);
-                valuesMap.put(KEY_TOTAL_COUNT, pagesCount);
+        if (requestCode <= 0) {
+            Debug.warn(TAG, "The request code has invalid value (less than 1).", methodName);
+            return -1;
+        }
+        final int digits = digitCount(requestCode);
+        final int multiplier = (int) (requestCode / POWERS_OF_TEN[digits - 1]);
+
+        // Digits after the last block are ignored
+        final int blocksEnd = digits - 1 - 3 * multiplier;
+        if (Check.positiveInt(TAG, "multiplier", methodName, multiplier)) {
+            if (blocksEnd < 0) {
+                Debug.warn(TAG, "The request code " + requestCode + " has less digits than "
+                        + "the multiplier requires.", methodName);
+                return -1;
             }
-        } catch (final Exception e) {
-            Debug.error(TAG, "get blocks from encoded number " + requestCode, methodName, e);
+            final long blockBase = POWERS_OF_TEN[multiplier];
+            final long blocks = requestCode / POWERS_OF_TEN[blocksEnd];
+
+            final long totalCount = blocks % blockBase;
+            final long pageId = blocks / blockBase % blockBase;
+            final long index = blocks / blockBase / blockBase % blockBase;
+            return pack(index, pageId, totalCount);
         }
-        return valuesMap;
+        return -1;
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Packs three values into a single long. Every value takes
+     * {@link #PACKED_FIELD_BITS} bits.
+     *
+     * @param index      long - The list item index.
+     * @param pageId     long - The page number.
+     * @param totalCount long - The total pages count.
+     * @return long - The packed values.
+     * @since 1.3.0
+     */
+    private static long pack(long index, long pageId, long totalCount) {
+        return (index << (2 * PACKED_FIELD_BITS)) | (pageId << PACKED_FIELD_BITS) | totalCount;
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Reads the list item index from a packed decoding result.
+     *
+     * @param packed long - The bit-packed request code, or the result of
+     *               {@link #decodeToLong(long)}.
+     * @return int - The list item index.
+     * @since 1.3.0
+     */
+    public static int unpackItemIndex(long packed) {
+        return (int) (packed >>> (2 * PACKED_FIELD_BITS)) & PACKED_FIELD_MAX;
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Reads the page number from a packed decoding result.
+     *
+     * @param packed long - The bit-packed request code, or the result of
+     *               {@link #decodeToLong(long)}.
+     * @return int - The page number.
+     * @since 1.3.0
+     */
+    public static int unpackPageId(long packed) {
+        return (int) (packed >>> PACKED_FIELD_BITS) & PACKED_FIELD_MAX;
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Reads the total pages count from a packed decoding result.
+     *
+     * @param packed long - The bit-packed request code, or the result of
+     *               {@link #decodeToLong(long)}.
+     * @return int - The total pages count.
+     * @since 1.3.0
+     */
+    public static int unpackTotalCount(long packed) {
+        return (int) packed & PACKED_FIELD_MAX;
     }
 
     // =================================================================================================================================
@@ -363,12 +722,9 @@ public class ReferenceEncodeUtils {
 
         if (Check.positiveInt(TAG, "requestCode", methodName, requestCode)) {
 
-            final Map<String, Integer> valuesMap = decode(requestCode);
-            if (Check.notNull(TAG, "valuesMap Map", methodName, valuesMap)) {
-
-                final int pageId = valuesMap.get(KEY_PAGE_ID);
-                final int totalCount = valuesMap.get(KEY_TOTAL_COUNT);
-                tag = pageId + "/" + totalCount;
+            final long packed = decodeToLong(requestCode);
+            if (packed >= 0) {
+                tag = unpackPageId(packed) + "/" + unpackTotalCount(packed);
             }
         }
         return tag;
@@ -389,11 +745,7 @@ public class ReferenceEncodeUtils {
         int topicIndex = -1;
 
         if (Check.positiveInt(TAG, "requestCode", methodName, requestCode)) {
-
-            final Map<String, Integer> valuesMap = decode(requestCode);
-            if (Check.notNull(TAG, "valuesMap Map", methodName, valuesMap)) {
-                topicIndex = valuesMap.get(KEY_ITEM_INDEX);
-            }
+            topicIndex = itemIndexOf(requestCode);
         }
         return topicIndex;
     }
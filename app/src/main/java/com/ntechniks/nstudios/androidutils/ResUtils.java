@@ -1,7 +1,9 @@
 package com.ntechniks.nstudios.androidutils;
 
 import android.content.Context;
+import android.content.res.AssetFileDescriptor;
 import android.content.res.Resources;
+import android.os.ParcelFileDescriptor;
 
 import androidx.annotation.IntegerRes;
 import androidx.annotation.NonNull;
@@ -15,7 +17,20 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
 /**
@@ -30,6 +45,8 @@ public class ResUtils {
     public static final String TAG = "ResUtils";
     public static final String RES_TYPE_RAW = "raw";
 
+    private static final String PROC_SELF_FD = "/proc/self/fd/";
+
     /**
      * Main constructor with private accessor to prevent instantiating the class.
      *
@@ -158,6 +175,22 @@ public class ResUtils {
 
         Validate.notNull(zip, "The zip should be valid object.");
 
+        // A single buffer is reused for all the entries in the archive
+        final ByteBufferPool pool = ByteBufferPool.shared();
+        final ByteBuffer buffer = pool.acquire(ByteBufferPool.DEFAULT_BUFFER_SIZE);
+        try {
+            unpackZipEntries(destFolder, zip, permissions, shouldOverride, buffer);
+        } finally {
+            pool.release(buffer);
+        }
+        zip.close();
+    }
+
+    private static void unpackZipEntries(@Nullable final String destFolder, final ZipInputStream zip,
+                                         @Nullable final String permissions,
+                                         final boolean shouldOverride,
+                                         final ByteBuffer buffer) throws IOException, IllegalAccessException {
+
         // Loop through all the files and folders
         for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
 
@@ -176,13 +209,575 @@ public class ResUtils {
                     FileUtils.createDir(innerFile, permissions);
                 } else {
                     // Create a file output stream
-                    FileUtils.saveFile(zip, innerFile, permissions);
+                    FileUtils.saveFile(zip, innerFile, permissions, buffer);
                 }
             }
             // Close the current entry
             zip.closeEntry();
         }
+    }
+
+    /**
+     * Unpacking a zip file stored as a application resource file, extracting only the entries
+     * which changed since the last unpacking into the same folder. See
+     * {@link #unpackZipFileIncremental(String, ZipInputStream, String)} for details.
+     *
+     * @param id          {@link int} - The resource id of the file.
+     * @param context     {@link Context} - The current context.
+     * @param destFolder  {@link String} - The directory path to the destination.
+     * @param permissions {@link String} - In case the files don't exist, it will create new
+     *                    file or dir with the following permissions attribute.
+     * @return {@link ZipUnpackResult} - The aggregated result of the unpacking.
+     * @throws android.content.res.Resources.NotFoundException - In case the resource was not found.
+     * @throws IOException                                     - In case there was read/write problem during unpacking.
+     * @throws IllegalAccessException                          {@link IllegalAccessException} -
+     * @since 1.3.0
+     */
+    @NonNull
+    public static ZipUnpackResult unpackZipResourceIncremental(@RawRes final int id, final Context context,
+                                                               @NonNull final String destFolder,
+                                                               @Nullable final String permissions) throws IOException, IllegalAccessException {
+
+        final ZipInputStream zip = getZipInputStream(context, id);
+        if (zip == null) {
+            throw new Resources.NotFoundException("Cannot load raw resource file with id: " + id);
+        }
+        return unpackZipFileIncremental(destFolder, zip, permissions);
+    }
+
+    /**
+     * Unpacking a zip file, extracting only the entries which changed since the last unpacking
+     * into the same folder. The CRC-32, size, and time of every extracted entry are kept in a
+     * small manifest file in the destination folder. An entry is extracted again only when
+     * these details differ from the manifest, or its file is missing on the disk. The files of
+     * entries which disappeared from the archive are deleted.
+     * <p>
+     * A stream knows the details of an entry written with a data descriptor, as done by
+     * {@link java.util.zip.ZipOutputStream} and most streaming zippers for compressed entries,
+     * only after its data is read. Such entries are compared with their files while they are
+     * read, and a file is written only from the first differing byte on. Use
+     * {@link #unpackZipFileIncremental(String, File, String)} for archives stored as files,
+     * which skips the unchanged entries without reading them.
+     *
+     * @param destFolder  {@link String} - The directory path to the destination.
+     * @param zip         {@link ZipInputStream} - Input stream to the zip file.
+     * @param permissions {@link String} - In case the files don't exist, it will create new
+     *                    file or dir with the following permissions attribute.
+     * @return {@link ZipUnpackResult} - The aggregated result of the unpacking.
+     * @throws IOException            - In case there was read/write problem during unpacking.
+     * @throws IllegalAccessException {@link IllegalAccessException} -
+     * @since 1.3.0
+     */
+    @NonNull
+    public static ZipUnpackResult unpackZipFileIncremental(@NonNull final String destFolder,
+                                                           final ZipInputStream zip,
+                                                           @Nullable final String permissions) throws IOException, IllegalAccessException {
+
+        Validate.notNull(destFolder, "The destFolder should be valid object.");
+        Validate.notNull(zip, "The zip should be valid object.");
+
+        final File destinationDir = prepareDestinationDir(destFolder, permissions);
+        final ZipUnpackManifest previous = ZipUnpackManifest.load(destinationDir);
+        final ZipUnpackManifest current = new ZipUnpackManifest();
+        final ZipUnpackResult result = new ZipUnpackResult();
+
+        final ByteBufferPool pool = ByteBufferPool.shared();
+        final ByteBuffer buffer = pool.acquire(ByteBufferPool.DEFAULT_BUFFER_SIZE);
+        try {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+
+                final String innerFileName = entry.getName();
+                final File innerFile = new File(destinationDir, innerFileName);
+
+                if (entry.isDirectory()) {
+                    unpackIncrementalDirectory(innerFile, entry, permissions, current, result);
+                } else if (isUnchanged(previous.get(innerFileName), entry, innerFile)) {
+                    current.put(innerFileName, entry.getCrc(), entry.getSize(), entry.getTime());
+                    result.onEntrySkipped();
+                } else if ((entry.getCrc() == -1 || entry.getSize() == -1) && innerFile.isFile()) {
+                    rewriteChangedEntry(zip, innerFile, entry, buffer, current, result);
+                } else {
+                    extractIncrementalEntry(zip, innerFile, entry, permissions, buffer, current, result);
+                }
+                zip.closeEntry();
+            }
+        } finally {
+            pool.release(buffer);
+        }
         zip.close();
+
+        deleteRemovedEntries(destinationDir, previous, current, result);
+        current.store(destinationDir);
+        return result;
+    }
+
+    /**
+     * Unpacking a zip file stored as a local file, extracting only the entries which changed
+     * since the last unpacking into the same folder, see
+     * {@link #unpackZipFileIncremental(String, ZipInputStream, String)}. The details of the
+     * entries are taken from the central directory of the file, so they are known for all the
+     * entries up front, and the unchanged entries are not even read.
+     *
+     * @param destFolder  {@link String} - The directory path to the destination.
+     * @param zip         {@link File} - The zip file.
+     * @param permissions {@link String} - In case the files don't exist, it will create new
+     *                    file or dir with the following permissions attribute.
+     * @return {@link ZipUnpackResult} - The aggregated result of the unpacking.
+     * @throws IOException            - In case there was read/write problem during unpacking.
+     * @throws IllegalAccessException {@link IllegalAccessException} -
+     * @since 1.3.0
+     */
+    @NonNull
+    public static ZipUnpackResult unpackZipFileIncremental(@NonNull final String destFolder,
+                                                           @NonNull final File zip,
+                                                           @Nullable final String permissions) throws IOException, IllegalAccessException {
+
+        Validate.notNull(destFolder, "The destFolder should be valid object.");
+        Validate.notNull(zip, "The zip should be valid object.");
+
+        final File destinationDir = prepareDestinationDir(destFolder, permissions);
+        final ZipUnpackManifest previous = ZipUnpackManifest.load(destinationDir);
+        final ZipUnpackManifest current = new ZipUnpackManifest();
+        final ZipUnpackResult result = new ZipUnpackResult();
+
+        final ByteBufferPool pool = ByteBufferPool.shared();
+        final ByteBuffer buffer = pool.acquire(ByteBufferPool.DEFAULT_BUFFER_SIZE);
+        try (final ZipFile zipFile = new ZipFile(zip)) {
+
+            final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+
+                final ZipEntry entry = entries.nextElement();
+                final String innerFileName = entry.getName();
+                final File innerFile = new File(destinationDir, innerFileName);
+
+                if (entry.isDirectory()) {
+                    unpackIncrementalDirectory(innerFile, entry, permissions, current, result);
+                } else if (isUnchanged(previous.get(innerFileName), entry, innerFile)) {
+                    current.put(innerFileName, entry.getCrc(), entry.getSize(), entry.getTime());
+                    result.onEntrySkipped();
+                } else {
+                    try (final InputStream in = zipFile.getInputStream(entry)) {
+                        extractIncrementalEntry(in, innerFile, entry, permissions, buffer, current, result);
+                    }
+                }
+            }
+        } finally {
+            pool.release(buffer);
+        }
+
+        deleteRemovedEntries(destinationDir, previous, current, result);
+        current.store(destinationDir);
+        return result;
+    }
+
+    /**
+     * Creates the destination folder of an incremental unpacking, in case it doesn't exist.
+     */
+    @NonNull
+    private static File prepareDestinationDir(@NonNull final String destFolder,
+                                              @Nullable final String permissions) throws IllegalAccessException {
+
+        final File destinationDir = new File(destFolder);
+        if (!FileUtils.isExistingReadableDir(destinationDir)) {
+            FileUtils.createDir(destinationDir, permissions);
+        }
+        return destinationDir;
+    }
+
+    /**
+     * Creates the folder of a directory entry of an incremental unpacking, in case it doesn't
+     * exist.
+     */
+    private static void unpackIncrementalDirectory(@NonNull final File innerFile, @NonNull final ZipEntry entry,
+                                                   @Nullable final String permissions,
+                                                   @NonNull final ZipUnpackManifest current,
+                                                   @NonNull final ZipUnpackResult result) throws IllegalAccessException {
+
+        if (!innerFile.exists()) {
+            FileUtils.createDir(innerFile, permissions);
+            result.onDirectoryCreated();
+        }
+        current.put(entry.getName(), 0, 0, 0);
+    }
+
+    /**
+     * Extracts a file entry of an incremental unpacking, replacing its previous file.
+     */
+    private static void extractIncrementalEntry(@NonNull final InputStream in, @NonNull final File innerFile,
+                                                @NonNull final ZipEntry entry, @Nullable final String permissions,
+                                                @NonNull final ByteBuffer buffer,
+                                                @NonNull final ZipUnpackManifest current,
+                                                @NonNull final ZipUnpackResult result) throws IOException, IllegalAccessException {
+
+        final String innerFileName = entry.getName();
+        Debug.dMsg(TAG, "Extracting: " + innerFileName + "...", "unpackZipFileIncremental");
+        final File parent = innerFile.getParentFile();
+        if (parent != null && !parent.exists()) {
+            FileUtils.createDir(parent, permissions);
+        }
+        FileUtils.deleteFileIfExists(innerFile);
+        if (FileUtils.saveFile(in, innerFile, permissions, buffer) != null) {
+            // The entry details are complete once its data was read to the end.
+            current.put(innerFileName, entry.getCrc(), entry.getSize(), entry.getTime());
+            result.onFileExtracted(innerFile.length());
+        } else {
+            result.onEntryFailed(innerFileName);
+        }
+    }
+
+    /**
+     * Compares a file entry, which details are not known before its data is read, with its
+     * existing file, while the data is read. The file is left untouched when the content is the
+     * same, otherwise it is written from the first differing byte on.
+     */
+    private static void rewriteChangedEntry(@NonNull final InputStream in, @NonNull final File innerFile,
+                                            @NonNull final ZipEntry entry, @NonNull final ByteBuffer buffer,
+                                            @NonNull final ZipUnpackManifest current,
+                                            @NonNull final ZipUnpackResult result) {
+
+        final String innerFileName = entry.getName();
+        final ByteBufferPool pool = ByteBufferPool.shared();
+        final ByteBuffer existing = pool.acquire(buffer.capacity());
+        try (final RandomAccessFile file = new RandomAccessFile(innerFile, "rw")) {
+
+            final byte[] data = buffer.array();
+            final int offset = buffer.arrayOffset();
+            final int capacity = buffer.capacity();
+            boolean changed = false;
+            long position = 0;
+            int read;
+            while ((read = in.read(data, offset, capacity)) != -1) {
+                if (!changed && !matches(file, existing.array(), data, offset, read)) {
+                    Debug.dMsg(TAG, "Extracting: " + innerFileName + "...", "unpackZipFileIncremental");
+                    changed = true;
+                    file.seek(position);
+                }
+                if (changed) {
+                    file.write(data, offset, read);
+                }
+                position += read;
+            }
+            if (file.length() != position) {
+                changed = true;
+                file.setLength(position);
+            }
+
+            // The entry details are complete once its data was read to the end.
+            current.put(innerFileName, entry.getCrc(), entry.getSize(), entry.getTime());
+            if (changed) {
+                result.onFileExtracted(position);
+            } else {
+                result.onEntrySkipped();
+            }
+        } catch (final IOException ioe) {
+            Debug.error(TAG, "compare zip entry " + innerFileName, "rewriteChangedEntry", ioe);
+            result.onEntryFailed(innerFileName);
+        } finally {
+            pool.release(existing);
+        }
+    }
+
+    /**
+     * Reads the next bytes of a file, and checks whether they are the same as the given data.
+     */
+    private static boolean matches(@NonNull final RandomAccessFile file, @NonNull final byte[] scratch,
+                                   @NonNull final byte[] data, final int offset, final int length) throws IOException {
+
+        int total = 0;
+        while (total < length) {
+            final int read = file.read(scratch, 0, Math.min(scratch.length, length - total));
+            if (read == -1) {
+                return false;
+            }
+            for (int i = 0; i < read; i++) {
+                if (scratch[i] != data[offset + total + i]) {
+                    return false;
+                }
+            }
+            total += read;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a zip entry is the same as the one recorded by the manifest, and its file
+     * is still present on the disk.
+     */
+    private static boolean isUnchanged(@Nullable final ZipUnpackManifest.Record record,
+                                       @NonNull final ZipEntry entry, @NonNull final File file) {
+
+        final long crc = entry.getCrc();
+        final long size = entry.getSize();
+        if (record == null || crc == -1 || size == -1) {
+            return false;
+        }
+        return record.matches(crc, size, entry.getTime()) && file.isFile() && file.length() == size;
+    }
+
+    /**
+     * Deletes the files of the entries which are known by the previous manifest, but are not
+     * part of the archive anymore. The names are processed in reverse order, so the files are
+     * deleted before their parent directories.
+     */
+    private static void deleteRemovedEntries(@NonNull final File destinationDir,
+                                             @NonNull final ZipUnpackManifest previous,
+                                             @NonNull final ZipUnpackManifest current,
+                                             @NonNull final ZipUnpackResult result) throws IOException {
+
+        final List<String> removed = new ArrayList<>();
+        for (final String name : previous.names()) {
+            if (!current.contains(name)) {
+                removed.add(name);
+            }
+        }
+        Collections.sort(removed, Collections.<String>reverseOrder());
+        for (final String name : removed) {
+            final File file = new File(destinationDir, name);
+            // Directories are deleted only when empty, since they may hold files of the app.
+            if (FileUtils.deleteFileIfExists(file)) {
+                result.onFileDeleted();
+            }
+        }
+    }
+
+    /**
+     * Unpacking a zip file stored as a application resource file, extracting the entries in
+     * parallel. The resource is copied first into the cache directory, since only seekable files
+     * can be read by more than one thread. The copy is deleted once the unpacking is complete.
+     *
+     * @param id             {@link int} - The resource id of the file.
+     * @param context        {@link Context} - The current context.
+     * @param destFolder     {@link String} - The directory path to the destination.
+     * @param permissions    {@link String} - In case the files don't exist, it will create new
+     *                       file or dir with the following permissions attribute.
+     * @param shouldOverride {@link boolean} - Should override the destination files if already
+     *                       exist.
+     * @param executor       {@link Executor} - The executor which will extract the entries.
+     * @return {@link ZipUnpackResult} - The aggregated result of the unpacking.
+     * @throws android.content.res.Resources.NotFoundException - In case the resource was not found.
+     * @throws IOException                                     - In case there was read/write problem during unpacking.
+     * @throws IllegalAccessException                          {@link IllegalAccessException} -
+     * @since 1.3.0
+     */
+    @NonNull
+    public static ZipUnpackResult unpackZipResourceParallel(@RawRes final int id, @NonNull final Context context,
+                                                            @Nullable final String destFolder,
+                                                            @Nullable final String permissions,
+                                                            final boolean shouldOverride,
+                                                            @NonNull final Executor executor) throws IOException, IllegalAccessException {
+
+        Validate.notNull(context, "The context should be valid object.");
+
+        final File stagedZip = File.createTempFile("unpack", ".zip", context.getCacheDir());
+        try {
+            stageRawResource(context, id, stagedZip);
+            return unpackZipFileParallel(destFolder, stagedZip, permissions, shouldOverride, executor);
+        } finally {
+            FileUtils.deleteFileIfExists(stagedZip);
+        }
+    }
+
+    /**
+     * Unpacking a zip file stored as a local file, extracting the entries in parallel. The file
+     * is opened through the file descriptor of the given stream, so the stream is not read.
+     *
+     * @param destFolder     {@link String} - The directory path to the destination.
+     * @param fis            {@link FileInputStream} - Input stream to the zip file.
+     * @param permissions    {@link String} - In case the files don't exist, it will create new
+     *                       file or dir with the following permissions attribute.
+     * @param shouldOverride {@link boolean} - Should override the destination files if already
+     *                       exist.
+     * @param executor       {@link Executor} - The executor which will extract the entries.
+     * @return {@link ZipUnpackResult} - The aggregated result of the unpacking.
+     * @throws IOException            - In case there was read/write problem during unpacking.
+     * @throws IllegalAccessException {@link IllegalAccessException} -
+     * @since 1.3.0
+     */
+    @NonNull
+    public static ZipUnpackResult unpackZipFileParallel(@Nullable final String destFolder,
+                                                        @NonNull final FileInputStream fis,
+                                                        @Nullable final String permissions,
+                                                        final boolean shouldOverride,
+                                                        @NonNull final Executor executor) throws IOException, IllegalAccessException {
+
+        Validate.notNull(fis, "The fis should be valid object.");
+
+        // The zip file is opened through the descriptor link of the process.
+        try (final ParcelFileDescriptor pfd = ParcelFileDescriptor.dup(fis.getFD())) {
+            final ZipFile zipFile = new ZipFile(PROC_SELF_FD + pfd.getFd());
+            return unpackZipFileParallel(destFolder, zipFile, permissions, shouldOverride, executor);
+        }
+    }
+
+    /**
+     * Unpacking a zip file stored as a local file, extracting the entries in parallel. All the
+     * directories are created up front on the caller thread, then every file entry is inflated
+     * and written by the given executor. The method blocks until all the entries are processed.
+     *
+     * @param destFolder     {@link String} - The directory path to the destination.
+     * @param zip            {@link File} - The zip file.
+     * @param permissions    {@link String} - In case the files don't exist, it will create new
+     *                       file or dir with the following permissions attribute.
+     * @param shouldOverride {@link boolean} - Should override the destination files if already
+     *                       exist.
+     * @param executor       {@link Executor} - The executor which will extract the entries.
+     * @return {@link ZipUnpackResult} - The aggregated result of the unpacking.
+     * @throws IOException            - In case there was read/write problem during unpacking.
+     * @throws IllegalAccessException {@link IllegalAccessException} -
+     * @since 1.3.0
+     */
+    @NonNull
+    public static ZipUnpackResult unpackZipFileParallel(@Nullable final String destFolder,
+                                                        @NonNull final File zip,
+                                                        @Nullable final String permissions,
+                                                        final boolean shouldOverride,
+                                                        @NonNull final Executor executor) throws IOException, IllegalAccessException {
+
+        Validate.notNull(zip, "The zip should be valid object.");
+        return unpackZipFileParallel(destFolder, new ZipFile(zip), permissions, shouldOverride, executor);
+    }
+
+    private static ZipUnpackResult unpackZipFileParallel(@Nullable final String destFolder,
+                                                         @NonNull final ZipFile zipFile,
+                                                         @Nullable final String permissions,
+                                                         final boolean shouldOverride,
+                                                         @NonNull final Executor executor) throws IOException, IllegalAccessException {
+
+        try {
+            Validate.notNull(executor, "The executor should be valid object.");
+
+            final ZipUnpackResult result = new ZipUnpackResult();
+            final List<ZipEntry> fileEntries = createZipDirectories(destFolder, zipFile, permissions,
+                    shouldOverride, result);
+
+            final CountDownLatch latch = new CountDownLatch(fileEntries.size());
+            for (final ZipEntry entry : fileEntries) {
+                final Runnable task = () -> {
+                    try {
+                        extractZipEntry(destFolder, zipFile, entry, permissions, shouldOverride, result);
+                    } finally {
+                        latch.countDown();
+                    }
+                };
+                try {
+                    executor.execute(task);
+                } catch (final RejectedExecutionException ree) {
+                    // The executor is saturated or shut down, so the caller extracts the entry.
+                    task.run();
+                }
+            }
+            latch.await();
+            return result;
+
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Unpacking of " + zipFile.getName() + " was interrupted.");
+        } finally {
+            zipFile.close();
+        }
+    }
+
+    /**
+     * Creates the directory entries of a zip file, as well as the parent directories of all the
+     * file entries, so the workers never race for creating the same directory.
+     *
+     * @return {@literal List<ZipEntry>} - The file entries which should be extracted.
+     */
+    private static List<ZipEntry> createZipDirectories(@Nullable final String destFolder,
+                                                       @NonNull final ZipFile zipFile,
+                                                       @Nullable final String permissions,
+                                                       final boolean shouldOverride,
+                                                       @NonNull final ZipUnpackResult result) throws IllegalAccessException {
+
+        final String destinationDir = (destFolder != null) ? destFolder : Empty.string();
+        final List<ZipEntry> fileEntries = new ArrayList<>(zipFile.size());
+        final Set<File> parentDirs = new HashSet<>();
+
+        final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+        while (entries.hasMoreElements()) {
+
+            final ZipEntry entry = entries.nextElement();
+            final File innerFile = new File(destinationDir, entry.getName());
+            if (!entry.isDirectory()) {
+                fileEntries.add(entry);
+                final File parent = innerFile.getParentFile();
+                if (parent != null && parentDirs.add(parent) && !parent.exists()) {
+                    FileUtils.createDir(parent, permissions);
+                }
+            } else if (shouldOverride || !innerFile.exists()) {
+                FileUtils.createDir(innerFile, permissions);
+                result.onDirectoryCreated();
+            } else {
+                result.onEntrySkipped();
+            }
+        }
+        return fileEntries;
+    }
+
+    /**
+     * Extracts a single file entry of a zip file. Runs on the executor threads, so all the
+     * failures are recorded into the result instead of being thrown.
+     */
+    private static void extractZipEntry(@Nullable final String destFolder, @NonNull final ZipFile zipFile,
+                                        @NonNull final ZipEntry entry, @Nullable final String permissions,
+                                        final boolean shouldOverride,
+                                        @NonNull final ZipUnpackResult result) {
+
+        final String innerFileName = entry.getName();
+        final String destinationDir = (destFolder != null) ? destFolder : Empty.string();
+        final File innerFile = new File(destinationDir, innerFileName);
+
+        final ByteBufferPool pool = ByteBufferPool.shared();
+        final ByteBuffer buffer = pool.acquire(ByteBufferPool.sizeFor(entry.getSize()));
+        try (final InputStream in = zipFile.getInputStream(entry)) {
+
+            Debug.dMsg(TAG, "Extracting: " + innerFileName + "...", "extractZipEntry");
+            if (innerFile.exists() && shouldOverride) {
+                FileUtils.deleteFileIfExists(innerFile);
+            }
+            if (shouldOverride || !innerFile.exists()) {
+                if (FileUtils.saveFile(in, innerFile, permissions, buffer) != null) {
+                    result.onFileExtracted(innerFile.length());
+                } else {
+                    result.onEntryFailed(innerFileName);
+                }
+            } else {
+                result.onEntrySkipped();
+            }
+        } catch (final IOException | IllegalAccessException | RuntimeException e) {
+            Debug.error(TAG, "extract zip entry " + innerFileName, "extractZipEntry", e);
+            result.onEntryFailed(innerFileName);
+        } finally {
+            pool.release(buffer);
+        }
+    }
+
+    /**
+     * Copies a raw resource into the given file. Resources stored uncompressed in the APK are
+     * moved straight through their file descriptor, the rest are copied as streams.
+     */
+    private static void stageRawResource(@NonNull final Context context, @RawRes final int id,
+                                         @NonNull final File file) throws IOException {
+
+        final Resources resources = context.getResources();
+        AssetFileDescriptor afd = null;
+        try {
+            afd = resources.openRawResourceFd(id);
+        } catch (final Resources.NotFoundException nfe) {
+            // The resource is compressed, so it doesn't have a file descriptor.
+        }
+        if (afd != null) {
+            try {
+                FileSaveEngine.save(afd.getFileDescriptor(), afd.getStartOffset(), afd.getLength(), file);
+            } finally {
+                afd.close();
+            }
+            return;
+        }
+        try (final InputStream in = resources.openRawResource(id)) {
+            FileSaveEngine.save(in, file);
+        }
     }
 
     /**
@@ -0,0 +1,856 @@
+package com.ntechniks.nstudios.androidutils;
+
+import androidx.annotation.NonNull;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.Validate;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Reusable codec, which serializes {@link String} arrays into a single {@link String} and
+ * deserializes them back. This is the engine behind {@link StringArraySerializer}, but it can be
+ * used directly, when the output should be written into an existing {@link Appendable} or
+ * {@link CharBuffer}.
+ * <p>
+ * The text layout is selected by the {@link Format} of the codec:
+ * <ul>
+ * <li>{@link Format#DELIMITED} - The entries are separated by the delimiter char. Null and empty
+ * entries are skipped by the serialization, the same way they are skipped by the
+ * {@link StringArraySerializer}. The deserialization follows the rules of
+ * {@link String#split(String)}, so the trailing empty entries are removed, but the tokens are
+ * found with a plain char scanner instead of a regular expression.</li>
+ * <li>{@link Format#LENGTH_PREFIXED} - Every entry is written as its length, the delimiter char,
+ * and its chars, e.g. {@code "5:First0:3:a:b"}. Null entries are written as {@code "-1:"}. Any
+ * array round-trips, including null and empty entries, and entries which contain the
+ * delimiter.</li>
+ * </ul>
+ * <p>
+ * There is also a compact binary form, written by {@link #encode(String[], ByteBuffer)} and read
+ * by {@link #decode(ByteBuffer)}, which does not depend on the format or the delimiter of the
+ * codec.
+ * <p>
+ * The codec holds no mutable state, so a single instance can be shared between threads.
+ *
+ * @author Nikola Georgiev
+ * @version 1.1
+ * @since 1.3.0
+ */
+public final class StringArrayCodec {
+
+    /**
+     * The char which separates the entries by default.
+     *
+     * @since 1.3.0
+     */
+    public static final char DEFAULT_DELIMITER = ':';
+
+    /**
+     * The value of the numeric entries which cannot be parsed, e.g. empty or malformed entries,
+     * or numbers out of the range of the result type.
+     *
+     * @since 1.3.0
+     */
+    public static final int INVALID_NUMBER = -1;
+
+    /**
+     * The length written for null entries by the {@link Format#LENGTH_PREFIXED} format.
+     */
+    private static final int NULL_LENGTH = -1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final StringArrayCodec sDefault = new StringArrayCodec(DEFAULT_DELIMITER);
+
+    private final char mDelimiter;
+    private final Format mFormat;
+
+    /**
+     * The text layouts supported by the codec.
+     *
+     * @since 1.3.0
+     */
+    public enum Format {
+
+        /**
+         * The entries are separated by the delimiter char. Null and empty entries are lost.
+         *
+         * @since 1.3.0
+         */
+        DELIMITED,
+
+        /**
+         * Every entry is prefixed by its length and the delimiter char. All entries round-trip.
+         *
+         * @since 1.3.0
+         */
+        LENGTH_PREFIXED
+    }
+
+    /**
+     * Creates new codec instance, which uses the {@link Format#DELIMITED} format.
+     *
+     * @param delimiter {@link char} - The char which will separate the entries.
+     * @since 1.3.0
+     */
+    public StringArrayCodec(final char delimiter) {
+        this(delimiter, Format.DELIMITED);
+    }
+
+    /**
+     * Creates new codec instance.
+     *
+     * @param delimiter {@link char} - The char which will separate the entries, or the length
+     *                  from the chars of the entries.
+     * @param format    {@link Format} - The text layout of the serialized entries.
+     * @throws IllegalArgumentException - In case the format is null, or the delimiter is a digit
+     *                                  or minus sign in {@link Format#LENGTH_PREFIXED} format.
+     * @since 1.3.0
+     */
+    public StringArrayCodec(final char delimiter, @NonNull final Format format) {
+
+        Validate.notNull(format, "The format should be valid object.");
+        Validate.isTrue(format != Format.LENGTH_PREFIXED || !isLengthChar(delimiter),
+                "The delimiter should not be a part of the length.");
+
+        mDelimiter = delimiter;
+        mFormat = format;
+    }
+
+    /**
+     * Returns the shared codec, which uses the {@link #DEFAULT_DELIMITER} and the
+     * {@link Format#DELIMITED} format.
+     *
+     * @return {@link StringArrayCodec} - The default codec instance.
+     * @since 1.3.0
+     */
+    @NonNull
+    public static StringArrayCodec getDefault() {
+        return sDefault;
+    }
+
+    /**
+     * @return {@link char} - The char which separates the entries.
+     * @since 1.3.0
+     */
+    public char getDelimiter() {
+        return mDelimiter;
+    }
+
+    /**
+     * @return {@link Format} - The text layout of the serialized entries.
+     * @since 1.3.0
+     */
+    @NonNull
+    public Format getFormat() {
+        return mFormat;
+    }
+
+    /**
+     * Computes the exact length of the serialization result of the given array.
+     *
+     * @param content String[] - String array with the strings to serialize.
+     * @return {@link int} - The amount of chars the serialized array will take.
+     * @throws IllegalArgumentException - In case the content is null.
+     * @since 1.3.0
+     */
+    public int serializedLength(@NonNull final String[] content) {
+
+        Validate.notNull(content, "The content should be valid object.");
+
+        int length = 0;
+        if (mFormat == Format.LENGTH_PREFIXED) {
+            for (final String string : content) {
+                final int stringLength = (string != null) ? string.length() : NULL_LENGTH;
+                length += digitCount(stringLength) + 1 + Math.max(stringLength, 0);
+            }
+            return length;
+        }
+        int count = 0;
+        for (final String string : content) {
+            if (string != null && string.length() > 0) {
+                length += string.length();
+                count++;
+            }
+        }
+        return (count > 0) ? length + count - 1 : 0;
+    }
+
+    /**
+     * Serializes array with {@link String}s into a single {@link String}. The builder of the
+     * result is allocated once with its exact final size.
+     *
+     * @param content String[] - String array with the strings to serialize.
+     * @return {@link String} - The serialization result {@link String}.
+     * @throws IllegalArgumentException - In case the content is null.
+     * @since 1.3.0
+     */
+    @NonNull
+    public String serialize(@NonNull final String[] content) {
+
+        final StringBuilder result = new StringBuilder(serializedLength(content));
+        return serialize(content, result).toString();
+    }
+
+    /**
+     * Serializes array with {@link String}s, appending the result to the given builder.
+     *
+     * @param content String[] - String array with the strings to serialize.
+     * @param out     {@link StringBuilder} - The builder where the result will be appended.
+     * @return {@link StringBuilder} - The given builder.
+     * @throws IllegalArgumentException - In case the content or out is null.
+     * @since 1.3.0
+     */
+    @NonNull
+    public StringBuilder serialize(@NonNull final String[] content, @NonNull final StringBuilder out) {
+
+        Validate.notNull(content, "The content should be valid object.");
+        Validate.notNull(out, "The out should be valid object.");
+
+        if (mFormat == Format.LENGTH_PREFIXED) {
+            for (final String string : content) {
+                if (string != null) {
+                    out.append(string.length()).append(mDelimiter).append(string);
+                } else {
+                    out.append(NULL_LENGTH).append(mDelimiter);
+                }
+            }
+            return out;
+        }
+        boolean isFirst = true;
+        for (final String string : content) {
+            if (string != null && string.length() > 0) {
+                if (!isFirst) {
+                    out.append(mDelimiter);
+                }
+                out.append(string);
+                isFirst = false;
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Serializes array with {@link String}s, appending the result to the given
+     * {@link Appendable}, e.g. a {@link java.io.Writer}.
+     *
+     * @param content String[] - String array with the strings to serialize.
+     * @param out     {@link Appendable} - The destination where the result will be appended.
+     * @param <A>     The type of the destination.
+     * @return {@link Appendable} - The given destination.
+     * @throws IOException              - In case the destination cannot be written.
+     * @throws IllegalArgumentException - In case the content or out is null.
+     * @since 1.3.0
+     */
+    @NonNull
+    public <A extends Appendable> A serialize(@NonNull final String[] content,
+                                              @NonNull final A out) throws IOException {
+
+        Validate.notNull(content, "The content should be valid object.");
+        Validate.notNull(out, "The out should be valid object.");
+
+        if (mFormat == Format.LENGTH_PREFIXED) {
+            for (final String string : content) {
+                if (string != null) {
+                    out.append(Integer.toString(string.length())).append(mDelimiter).append(string);
+                } else {
+                    out.append(Integer.toString(NULL_LENGTH)).append(mDelimiter);
+                }
+            }
+            return out;
+        }
+        boolean isFirst = true;
+        for (final String string : content) {
+            if (string != null && string.length() > 0) {
+                if (!isFirst) {
+                    out.append(mDelimiter);
+                }
+                out.append(string);
+                isFirst = false;
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Serializes array with {@link String}s into the given {@link CharBuffer}, starting at its
+     * current position. Nothing is written in case the remaining space in the buffer is not
+     * enough for the whole result.
+     *
+     * @param content String[] - String array with the strings to serialize.
+     * @param out     {@link CharBuffer} - The buffer where the result will be written.
+     * @return {@link boolean} - True if the result was written, false if the buffer has not
+     * enough remaining space.
+     * @throws IllegalArgumentException - In case the content or out is null.
+     * @since 1.3.0
+     */
+    public boolean serialize(@NonNull final String[] content, @NonNull final CharBuffer out) {
+
+        Validate.notNull(out, "The out should be valid object.");
+        if (out.remaining() < serializedLength(content)) {
+            return false;
+        }
+        if (mFormat == Format.LENGTH_PREFIXED) {
+            for (final String string : content) {
+                if (string != null) {
+                    out.put(Integer.toString(string.length())).put(mDelimiter).put(string);
+                } else {
+                    out.put(Integer.toString(NULL_LENGTH)).put(mDelimiter);
+                }
+            }
+            return true;
+        }
+        boolean isFirst = true;
+        for (final String string : content) {
+            if (string != null && string.length() > 0) {
+                if (!isFirst) {
+                    out.put(mDelimiter);
+                }
+                out.put(string);
+                isFirst = false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deserializes a char sequence into a {@link String} array. In {@link Format#DELIMITED}
+     * format the sequence is scanned for the delimiter char, and the trailing empty entries are
+     * removed, the same way as {@link String#split(String)} does. In
+     * {@link Format#LENGTH_PREFIXED} format the entries are restored exactly as they were
+     * serialized.
+     *
+     * @param content {@link CharSequence} - The serialized entries.
+     * @return String[] - The deserialized entries. Empty array in case the content is empty, or
+     * contains only delimiters in {@link Format#DELIMITED} format.
+     * @throws IllegalArgumentException - In case the content is null, or it is not a valid
+     *                                  {@link Format#LENGTH_PREFIXED} content.
+     * @since 1.3.0
+     */
+    @NonNull
+    public String[] deserialize(@NonNull final CharSequence content) {
+
+        Validate.notNull(content, "The content should be valid object.");
+
+        if (mFormat == Format.LENGTH_PREFIXED) {
+            return deserializeLengthPrefixed(content);
+        }
+
+        // Trailing empty entries are not part of the result
+        final int end = trimmedEnd(content);
+        if (end == 0) {
+            return ArrayUtils.EMPTY_STRING_ARRAY;
+        }
+        final int count = countEntries(content, end);
+
+        final String asString = content.toString();
+        final String[] result = new String[count];
+        int start = 0;
+        int index = 0;
+        for (int i = 0; i < end; i++) {
+            if (asString.charAt(i) == mDelimiter) {
+                result[index++] = asString.substring(start, i);
+                start = i + 1;
+            }
+        }
+        result[index] = asString.substring(start, end);
+        return result;
+    }
+
+    /**
+     * Computes the exact amount of bytes the binary form of the given array will take.
+     *
+     * @param content String[] - String array with the strings to encode.
+     * @return {@link int} - The amount of bytes the encoded array will take.
+     * @throws IllegalArgumentException - In case the content is null.
+     * @since 1.3.0
+     */
+    public int encodedLength(@NonNull final String[] content) {
+
+        Validate.notNull(content, "The content should be valid object.");
+
+        int length = varIntLength(content.length);
+        for (final String string : content) {
+            if (string == null) {
+                length++;
+            } else {
+                final int byteCount = utf8Length(string);
+                length += varIntLength(byteCount + 1) + byteCount;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Encodes array with {@link String}s into the given {@link ByteBuffer}, starting at its
+     * current position. The binary form is the amount of entries, followed by the UTF-8 bytes of
+     * every entry prefixed by their count plus one, where zero marks a null entry. The counts
+     * are written as unsigned variable length integers, 7 bits per byte. Nothing is written in
+     * case the remaining space in the buffer is not enough for the whole result.
+     *
+     * @param content String[] - String array with the strings to encode.
+     * @param out     {@link ByteBuffer} - The buffer where the result will be written.
+     * @return {@link boolean} - True if the result was written, false if the buffer has not
+     * enough remaining space.
+     * @throws IllegalArgumentException - In case the content or out is null.
+     * @since 1.3.0
+     */
+    public boolean encode(@NonNull final String[] content, @NonNull final ByteBuffer out) {
+
+        Validate.notNull(out, "The out should be valid object.");
+        if (out.remaining() < encodedLength(content)) {
+            return false;
+        }
+        putVarInt(out, content.length);
+        for (final String string : content) {
+            if (string == null) {
+                putVarInt(out, 0);
+            } else {
+                putVarInt(out, utf8Length(string) + 1);
+                putUtf8(out, string);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes array with {@link String}s written by {@link #encode(String[], ByteBuffer)},
+     * starting at the current position of the buffer. The position is moved after the last
+     * decoded byte.
+     *
+     * @param in {@link ByteBuffer} - The buffer with the encoded array.
+     * @return String[] - The decoded entries.
+     * @throws IllegalArgumentException - In case the buffer is null, or it does not contain a
+     *                                  valid encoded array.
+     * @since 1.3.0
+     */
+    @NonNull
+    public String[] decode(@NonNull final ByteBuffer in) {
+
+        Validate.notNull(in, "The in should be valid object.");
+
+        try {
+            final int count = getVarInt(in);
+            // Every entry takes at least one byte
+            Validate.isTrue(count <= in.remaining(), "Invalid entries count %d.", count);
+
+            final String[] result = new String[count];
+            for (int i = 0; i < count; i++) {
+                final int prefix = getVarInt(in);
+                if (prefix > 0) {
+                    result[i] = getUtf8(in, prefix - 1);
+                }
+            }
+            return result;
+        } catch (final BufferUnderflowException e) {
+            throw new IllegalArgumentException("The encoded array is truncated.", e);
+        }
+    }
+
+    /**
+     * Serializes int array into a single {@link String}, e.g. {@code "100:200:300"}.
+     *
+     * @param values int[] - The values to serialize.
+     * @return {@link String} - The serialization result {@link String}.
+     * @throws IllegalArgumentException - In case the values is null.
+     * @since 1.3.0
+     */
+    @NonNull
+    public String serialize(@NonNull final int[] values) {
+
+        Validate.notNull(values, "The values should be valid object.");
+
+        int length = Math.max(values.length - 1, 0);
+        for (final int value : values) {
+            length += digitCount(value);
+        }
+        return serialize(values, new StringBuilder(length)).toString();
+    }
+
+    /**
+     * Serializes int array, appending the result to the given builder. The digits are written
+     * straight into the builder, without intermediate strings.
+     *
+     * @param values int[] - The values to serialize.
+     * @param out    {@link StringBuilder} - The builder where the result will be appended.
+     * @return {@link StringBuilder} - The given builder.
+     * @throws IllegalArgumentException - In case the values or out is null.
+     * @since 1.3.0
+     */
+    @NonNull
+    public StringBuilder serialize(@NonNull final int[] values, @NonNull final StringBuilder out) {
+
+        Validate.notNull(values, "The values should be valid object.");
+        Validate.notNull(out, "The out should be valid object.");
+
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.append(mDelimiter);
+            }
+            out.append(values[i]);
+        }
+        return out;
+    }
+
+    /**
+     * Serializes long array into a single {@link String}, e.g. {@code "100:200:300"}.
+     *
+     * @param values long[] - The values to serialize.
+     * @return {@link String} - The serialization result {@link String}.
+     * @throws IllegalArgumentException - In case the values is null.
+     * @since 1.3.0
+     */
+    @NonNull
+    public String serialize(@NonNull final long[] values) {
+
+        Validate.notNull(values, "The values should be valid object.");
+
+        int length = Math.max(values.length - 1, 0);
+        for (final long value : values) {
+            length += digitCount(value);
+        }
+        return serialize(values, new StringBuilder(length)).toString();
+    }
+
+    /**
+     * Serializes long array, appending the result to the given builder. The digits are written
+     * straight into the builder, without intermediate strings.
+     *
+     * @param values long[] - The values to serialize.
+     * @param out    {@link StringBuilder} - The builder where the result will be appended.
+     * @return {@link StringBuilder} - The given builder.
+     * @throws IllegalArgumentException - In case the values or out is null.
+     * @since 1.3.0
+     */
+    @NonNull
+    public StringBuilder serialize(@NonNull final long[] values, @NonNull final StringBuilder out) {
+
+        Validate.notNull(values, "The values should be valid object.");
+        Validate.notNull(out, "The out should be valid object.");
+
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.append(mDelimiter);
+            }
+            out.append(values[i]);
+        }
+        return out;
+    }
+
+    /**
+     * Deserializes a char sequence like {@code "100:200:300"} into int array. The digits are
+     * parsed straight out of the sequence, without intermediate strings. The entries are found
+     * by the same rules as {@link #deserialize(CharSequence)}, and the entries which cannot be
+     * parsed get the value {@link #INVALID_NUMBER}.
+     *
+     * @param content {@link CharSequence} - The serialized values.
+     * @return int[] - The deserialized values. Empty array in case the content is empty, or
+     * contains only delimiters.
+     * @throws IllegalArgumentException - In case the content is null.
+     * @since 1.3.0
+     */
+    @NonNull
+    public int[] deserializeIntArray(@NonNull final CharSequence content) {
+
+        Validate.notNull(content, "The content should be valid object.");
+
+        final int end = trimmedEnd(content);
+        final int[] result = new int[countEntries(content, end)];
+        int start = 0;
+        int index = 0;
+        for (int i = 0; i <= end && index < result.length; i++) {
+            if (i == end || content.charAt(i) == mDelimiter) {
+                result[index++] = (int) parseNumber(content, start, i, Integer.MIN_VALUE, Integer.MAX_VALUE);
+                start = i + 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Deserializes a char sequence like {@code "100:200:300"} into long array. The digits are
+     * parsed straight out of the sequence, without intermediate strings. The entries are found
+     * by the same rules as {@link #deserialize(CharSequence)}, and the entries which cannot be
+     * parsed get the value {@link #INVALID_NUMBER}.
+     *
+     * @param content {@link CharSequence} - The serialized values.
+     * @return long[] - The deserialized values. Empty array in case the content is empty, or
+     * contains only delimiters.
+     * @throws IllegalArgumentException - In case the content is null.
+     * @since 1.3.0
+     */
+    @NonNull
+    public long[] deserializeLongArray(@NonNull final CharSequence content) {
+
+        Validate.notNull(content, "The content should be valid object.");
+
+        final int end = trimmedEnd(content);
+        final long[] result = new long[countEntries(content, end)];
+        int start = 0;
+        int index = 0;
+        for (int i = 0; i <= end && index < result.length; i++) {
+            if (i == end || content.charAt(i) == mDelimiter) {
+                result[index++] = parseNumber(content, start, i, Long.MIN_VALUE, Long.MAX_VALUE);
+                start = i + 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the end of the content, without the trailing delimiters.
+     */
+    private int trimmedEnd(@NonNull final CharSequence content) {
+
+        int end = content.length();
+        while (end > 0 && content.charAt(end - 1) == mDelimiter) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Counts the entries in the content up to the given end.
+     */
+    private int countEntries(@NonNull final CharSequence content, final int end) {
+
+        if (end == 0) {
+            return 0;
+        }
+        int count = 1;
+        for (int i = 0; i < end; i++) {
+            if (content.charAt(i) == mDelimiter) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Parses a decimal number out of a range of the content. The number is accumulated as
+     * negative value, so the minimum value of the range can be parsed without overflow.
+     *
+     * @return {@link long} - The parsed number, or {@link #INVALID_NUMBER} in case the range is
+     * empty, has non-digit chars, or the number is out of the given bounds.
+     */
+    private static long parseNumber(@NonNull final CharSequence content, final int start, final int end,
+                                    final long minValue, final long maxValue) {
+
+        if (start >= end) {
+            return INVALID_NUMBER;
+        }
+        int i = start;
+        final char first = content.charAt(i);
+        final boolean isNegative = first == '-';
+        if (isNegative || first == '+') {
+            if (++i == end) {
+                return INVALID_NUMBER;
+            }
+        }
+        final long limit = isNegative ? minValue : -maxValue;
+        final long multiplyLimit = limit / 10;
+        long result = 0;
+        for (; i < end; i++) {
+            final int digit = content.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result < multiplyLimit) {
+                return INVALID_NUMBER;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return INVALID_NUMBER;
+            }
+            result -= digit;
+        }
+        return isNegative ? result : -result;
+    }
+
+    /**
+     * Counts the chars needed to write the given number in decimal form, including the sign.
+     */
+    private static int digitCount(final long value) {
+
+        if (value == Long.MIN_VALUE) {
+            return 20;
+        }
+        int count = (value < 0) ? 2 : 1;
+        for (long rest = Math.abs(value); rest >= 10; rest /= 10) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Deserializes content in {@link Format#LENGTH_PREFIXED} format. The entries are counted
+     * first, by jumping over their chars, so the result is allocated once with its exact size.
+     */
+    @NonNull
+    private String[] deserializeLengthPrefixed(@NonNull final CharSequence content) {
+
+        final int length = content.length();
+        int count = 0;
+        for (int i = 0; i < length; count++) {
+            i = skipLengthPrefixedEntry(content, i);
+        }
+        final String asString = content.toString();
+        final String[] result = new String[count];
+        int position = 0;
+        for (int index = 0; index < count; index++) {
+            final int separator = asString.indexOf(mDelimiter, position);
+            final int stringLength = (int) parseNumber(asString, position, separator, NULL_LENGTH, Integer.MAX_VALUE);
+            if (stringLength != NULL_LENGTH) {
+                result[index] = asString.substring(separator + 1, separator + 1 + stringLength);
+            }
+            position = skipLengthPrefixedEntry(asString, position);
+        }
+        return result;
+    }
+
+    /**
+     * Validates a single {@link Format#LENGTH_PREFIXED} entry.
+     *
+     * @return {@link int} - The index right after the entry.
+     * @throws IllegalArgumentException - In case the entry is not valid.
+     */
+    private int skipLengthPrefixedEntry(@NonNull final CharSequence content, final int start) {
+
+        final int length = content.length();
+        int separator = start;
+        while (separator < length && isLengthChar(content.charAt(separator))) {
+            separator++;
+        }
+        Validate.isTrue(separator < length && content.charAt(separator) == mDelimiter,
+                "Missing length delimiter after index %d.", start);
+
+        // "-1" is the null entry, the rest of the negative lengths are invalid
+        final long stringLength = parseNumber(content, start, separator, NULL_LENGTH, Integer.MAX_VALUE);
+        final boolean isNull = separator - start == 2 && content.charAt(start) == '-'
+                && content.charAt(start + 1) == '1';
+        Validate.isTrue(stringLength >= 0 || isNull, "Invalid entry length at index %d.", start);
+
+        final long end = separator + 1 + Math.max(stringLength, 0);
+        Validate.isTrue(end <= length, "The entry at index %d is truncated.", start);
+        return (int) end;
+    }
+
+    private static boolean isSurrogate(final char c) {
+        return c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE;
+    }
+
+    private static boolean isLengthChar(final char c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+';
+    }
+
+    /**
+     * Counts the bytes of the UTF-8 form of the given {@link String}. Unpaired surrogates are
+     * counted as a single replacement byte, the same way {@link String#getBytes(Charset)} does.
+     */
+    private static int utf8Length(@NonNull final String string) {
+
+        final int length = string.length();
+        int byteCount = length;
+        for (int i = 0; i < length; i++) {
+            final char c = string.charAt(i);
+            if (c >= 0x800) {
+                if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(string.charAt(i + 1))) {
+                    // The pair takes 4 bytes in total
+                    byteCount += 2;
+                    i++;
+                } else if (!isSurrogate(c)) {
+                    byteCount += 2;
+                }
+            } else if (c >= 0x80) {
+                byteCount++;
+            }
+        }
+        return byteCount;
+    }
+
+    /**
+     * Writes the UTF-8 form of the given {@link String} straight into the buffer.
+     */
+    private static void putUtf8(@NonNull final ByteBuffer out, @NonNull final String string) {
+
+        final int length = string.length();
+        for (int i = 0; i < length; i++) {
+            final char c = string.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } else if (!isSurrogate(c)) {
+                out.put((byte) (0xE0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(string.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, string.charAt(++i));
+                out.put((byte) (0xF0 | (codePoint >> 18)));
+                out.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                out.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else {
+                out.put((byte) '?');
+            }
+        }
+    }
+
+    /**
+     * Reads a {@link String} from the given amount of UTF-8 bytes of the buffer.
+     */
+    @NonNull
+    private static String getUtf8(@NonNull final ByteBuffer in, final int byteCount) {
+
+        if (byteCount > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        final String result;
+        if (in.hasArray()) {
+            result = new String(in.array(), in.arrayOffset() + in.position(), byteCount, UTF_8);
+            in.position(in.position() + byteCount);
+        } else {
+            final byte[] bytes = new byte[byteCount];
+            in.get(bytes);
+            result = new String(bytes, UTF_8);
+        }
+        return result;
+    }
+
+    private static int varIntLength(final int value) {
+
+        int length = 1;
+        for (int rest = value >>> 7; rest != 0; rest >>>= 7) {
+            length++;
+        }
+        return length;
+    }
+
+    private static void putVarInt(@NonNull final ByteBuffer out, final int value) {
+
+        int rest = value;
+        while ((rest & ~0x7F) != 0) {
+            out.put((byte) ((rest & 0x7F) | 0x80));
+            rest >>>= 7;
+        }
+        out.put((byte) rest);
+    }
+
+    private static int getVarInt(@NonNull final ByteBuffer in) {
+
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                Validate.isTrue(value >= 0, "Invalid variable length integer.");
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid variable length integer.");
+    }
+}
@@ -36,12 +36,6 @@ public class StringArraySerializer {
      * @since 1.0
      */
     private static final String TAG = "StringArraySerializer";
-    /**
-     * The char which will separate the entries.
-     *
-     * @since 1.0
-     */
-    private static final String DELIMITER = ":";
 
     /**
      * Main constructor with private accessor to prevent instantiating the class.
@@ -57,7 +51,8 @@ public class StringArraySerializer {
     /**
      * Serializes array with {@link String}s, the output will be a single
      * {@link String}. As a separator in the serialization will be used the
-     * double points char ':'.
+     * double points char ':'. Null and empty strings in the array are skipped.
+     * The serialization is done by the shared {@link StringArrayCodec}.
      * <p>
      * <b>Example: </b><br>
      * Parameter: String[] { First, Second, Third } <br>
@@ -71,24 +66,56 @@ public class StringArraySerializer {
     @Nullable
     public static String serialize(@NonNull String[] content) {
 
-        final String methodName = "serialize";
+        if (InitCheck.pass(TAG, "serialize", new Object[]{content})) {
+            return StringArrayCodec.getDefault().serialize(content);
+        }
+        return null;
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Serializes int array, the output will be a single {@link String}. As a
+     * separator in the serialization will be used the double points char ':'.
+     * <p>
+     * <b>Example: </b><br>
+     * Parameter: int[] { 100, 200, 300 } <br>
+     * Returns: "100:200:300"
+     * </p>
+     *
+     * @param values int[] - The values to serialize.
+     * @return {@link String} - The serialization result {@link String}.
+     * @since 1.3.0
+     */
+    @Nullable
+    public static String serialize(@NonNull int[] values) {
 
-        if (InitCheck.pass(TAG, methodName, new Object[]{content})) {
+        if (InitCheck.pass(TAG, "serialize", new Object[]{values})) {
+            return StringArrayCodec.getDefault().serialize(values);
+        }
+        return null;
+    }
 
-            final StringBuilder result = new StringBuilder(Empty.string());
-            boolean isFirst = true;
+    // =================================================================================================================================
 
-            for (final String string : content) {
+    /**
+     * Serializes long array, the output will be a single {@link String}. As a
+     * separator in the serialization will be used the double points char ':'.
+     * <p>
+     * <b>Example: </b><br>
+     * Parameter: long[] { 100, 200, 300 } <br>
+     * Returns: "100:200:300"
+     * </p>
+     *
+     * @param values long[] - The values to serialize.
+     * @return {@link String} - The serialization result {@link String}.
+     * @since 1.3.0
+     */
+    @Nullable
+    public static String serialize(@NonNull long[] values) {
 
-                if (Check.validString(TAG, "string", methodName, string)) {
-                    if (!isFirst) {
-                        result.append(DELIMITER);
-                    }
-                    result.append(string);
-                    isFirst = false;
-                }
-            }
-            return result.toString();
+        if (InitCheck.pass(TAG, "serialize", new Object[]{values})) {
+            return StringArrayCodec.getDefault().serialize(values);
         }
         return null;
     }
@@ -116,11 +143,7 @@ public class StringArraySerializer {
         final String methodName = "deserializeStringArray";
 
         if (Check.validString(TAG, "content", methodName, content)) {
-
-            final String[] result = content.split(DELIMITER);
-            if (InitCheck.pass(TAG, methodName, new Object[]{result})) {
-                return result;
-            }
+            return StringArrayCodec.getDefault().deserialize(content);
         }
         return null;
     }
@@ -129,7 +152,9 @@ public class StringArraySerializer {
 
     /**
      * Deserializes a {@link String} and returns int array. The serialized
-     * {@link String} separator must be the double points char ':'.
+     * {@link String} separator must be the double points char ':'. The digits
+     * are parsed straight out of the {@link String}, without splitting it, and
+     * the entries which cannot be parsed get the value -1.
      * <p>
      * <b>Example: </b><br>
      * Parameter: "100:200:300" <br>
@@ -149,41 +174,45 @@ public class StringArraySerializer {
         if (Check.invalidString(TAG, "asString", methodName, asString)) {
             return null;
         }
-        final String[] asStringArray = deserializeStringArray(asString);
-        if (Check.notNull(TAG, "asStringArray String[]", methodName, asStringArray)) {
-
-            final int length = asStringArray.length;
-            if (length > 0) {
-
-                final int[] viewsArray = new int[length];
-                for (int i = 0; i < length; i++) {
-                    try {
-
-                        final String string = asStringArray[i];
-
-                        // Default value, just for fail
-                        // safe.
-                        int parseInt = -1;
-                        if (Check.validString(TAG, "in element " + i + " from " + length + " string", methodName,
-                                string)) {
-
-                            parseInt = Integer.parseInt(string);
-                        }
-                        if (parseInt <= 0) {
-                            Debug.warn(TAG, "The parseInt int has INVALID value." + "In element " + i + " from "
-                                    + length + ".", methodName);
-                        }
-                        viewsArray[i] = parseInt;
-
-                    } catch (final Exception e) {
-                        Debug.error(TAG, "to parce String[] to int[]", methodName, e);
-                    }
-                }
-                return viewsArray;
-            } else {
-                Debug.wLength(TAG, "asStringArray String[]", methodName);
-            }
+        final int[] values = StringArrayCodec.getDefault().deserializeIntArray(asString);
+        if (values.length > 0) {
+            return values;
+        }
+        Debug.wLength(TAG, "values int[]", methodName);
+        return null;
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Deserializes a {@link String} and returns long array. The serialized
+     * {@link String} separator must be the double points char ':'. The digits
+     * are parsed straight out of the {@link String}, without splitting it, and
+     * the entries which cannot be parsed get the value -1.
+     * <p>
+     * <b>Example: </b><br>
+     * Parameter: "100:200:300" <br>
+     * Returns: long[] { 100, 200, 300 }
+     * </p>
+     *
+     * @param asString {@link String} - The serialized String which will be
+     *                 deserialized.
+     * @return long[] - Returns long array with deserialized numbers.
+     * @since 1.3.0
+     */
+    @Nullable
+    public static long[] deserializeLongArray(@NonNull String asString) {
+
+        final String methodName = "deserializeLongArray";
+
+        if (Check.invalidString(TAG, "asString", methodName, asString)) {
+            return null;
+        }
+        final long[] values = StringArrayCodec.getDefault().deserializeLongArray(asString);
+        if (values.length > 0) {
+            return values;
         }
+        Debug.wLength(TAG, "values long[]", methodName);
         return null;
     }
 }
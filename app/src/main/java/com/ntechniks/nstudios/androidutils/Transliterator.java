@@ -0,0 +1,486 @@
+package com.ntechniks.nstudios.androidutils;
+
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
+
+import org.apache.commons.lang3.Validate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Table-driven transliteration engine, which folds locale specific letters into plain ASCII
+ * equivalents, e.g. for search keys. The replacements come from one or more {@link RuleSet}s,
+ * which are compiled into a single lookup table indexed by char, so every char of the input is
+ * checked with a single array access.
+ * <p>
+ * When the rule sets define different replacements for the same char, the rule set given last
+ * wins, e.g. {@code new Transliterator(RuleSet.FRENCH, RuleSet.GERMAN)} folds {@code Ü} to
+ * {@code Ue}, while {@code new Transliterator(RuleSet.GERMAN, RuleSet.FRENCH)} folds it to
+ * {@code U}.
+ * <p>
+ * The transliterator holds no mutable state, so a single instance can be shared between threads.
+ *
+ * @author Nikola Georgiev
+ * @version 1.1
+ * @since 1.3.0
+ */
+public final class Transliterator {
+
+    /**
+     * The amount of inputs transliterated by a single fork-join task. Batches which are not
+     * bigger than this are transliterated directly on the calling thread.
+     *
+     * @since 1.3.0
+     */
+    public static final int PARALLEL_CHUNK_SIZE = 512;
+
+    private final String[] mTable;
+
+    /**
+     * Immutable set of char replacements for a single locale.
+     *
+     * @since 1.3.0
+     */
+    public static final class RuleSet {
+
+        /**
+         * The German Umlaut chars and the sharp s.
+         *
+         * @since 1.3.0
+         */
+        public static final RuleSet GERMAN = new RuleSet("German", "ÄÖÜäöüß",
+                "Ae", "Oe", "Ue", "ae", "oe", "ue", "ss");
+
+        /**
+         * The Danish, Norwegian, Swedish, Finnish, and Icelandic specific chars.
+         *
+         * @since 1.3.0
+         */
+        public static final RuleSet NORDIC = new RuleSet("Nordic", "ÅåÆæØøÄäÖöÞþÐð",
+                "Aa", "aa", "Ae", "ae", "Oe", "oe", "Ae", "ae", "Oe", "oe", "Th", "th", "D", "d");
+
+        /**
+         * The French accented chars and ligatures.
+         *
+         * @since 1.3.0
+         */
+        public static final RuleSet FRENCH = new RuleSet("French", "ÀÂÇÉÈÊËÎÏÔÙÛÜŸŒÆàâçéèêëîïôùûüÿœæ",
+                "A", "A", "C", "E", "E", "E", "E", "I", "I", "O", "U", "U", "U", "Y", "Oe", "Ae",
+                "a", "a", "c", "e", "e", "e", "e", "i", "i", "o", "u", "u", "u", "y", "oe", "ae");
+
+        /**
+         * The Czech accented chars.
+         *
+         * @since 1.3.0
+         */
+        public static final RuleSet CZECH = new RuleSet("Czech", "ÁČĎÉĚÍŇÓŘŠŤÚŮÝŽáčďéěíňóřšťúůýž",
+                "A", "C", "D", "E", "E", "I", "N", "O", "R", "S", "T", "U", "U", "Y", "Z",
+                "a", "c", "d", "e", "e", "i", "n", "o", "r", "s", "t", "u", "u", "y", "z");
+
+        private final String mName;
+        private final String mChars;
+        private final String[] mReplacements;
+
+        /**
+         * Creates new rule set.
+         *
+         * @param name         {@link String} - The name of the rule set, e.g. the name of the
+         *                     locale.
+         * @param chars        {@link String} - The chars which should be replaced.
+         * @param replacements String... - The replacements of the chars, in the same order.
+         * @throws IllegalArgumentException - In case any of the parameters or replacements is
+         *                                  null, or the replacements count does not match the
+         *                                  chars count.
+         * @since 1.3.0
+         */
+        public RuleSet(@NonNull final String name, @NonNull final String chars,
+                       @NonNull final String... replacements) {
+
+            Validate.notNull(name, "The name should be valid object.");
+            Validate.notNull(chars, "The chars should be valid object.");
+            Validate.noNullElements(replacements, "The replacements should be valid objects.");
+            Validate.isTrue(chars.length() == replacements.length,
+                    "The replacements count should match the chars count.");
+
+            mName = name;
+            mChars = chars;
+            mReplacements = replacements.clone();
+        }
+
+        /**
+         * @return {@link String} - The name of the rule set.
+         * @since 1.3.0
+         */
+        @NonNull
+        public String getName() {
+            return mName;
+        }
+
+        /**
+         * @return {@link int} - The amount of chars replaced by the rule set.
+         * @since 1.3.0
+         */
+        public int size() {
+            return mReplacements.length;
+        }
+
+        @Override
+        public String toString() {
+            return "RuleSet{" + mName + ", " + mChars + '}';
+        }
+    }
+
+    /**
+     * Creates new transliterator, compiling the given rule sets into a single lookup table.
+     *
+     * @param ruleSets {@link RuleSet}... - The rule sets, the later ones override the
+     *                 replacements of the earlier ones.
+     * @throws IllegalArgumentException - In case the rule sets are null or contain null.
+     * @since 1.3.0
+     */
+    public Transliterator(@NonNull final RuleSet... ruleSets) {
+
+        Validate.noNullElements(ruleSets, "The ruleSets should be valid objects.");
+
+        char maxChar = 0;
+        for (final RuleSet ruleSet : ruleSets) {
+            for (int i = 0; i < ruleSet.mChars.length(); i++) {
+                maxChar = (char) Math.max(maxChar, ruleSet.mChars.charAt(i));
+            }
+        }
+        mTable = new String[(ruleSets.length > 0) ? maxChar + 1 : 0];
+        for (final RuleSet ruleSet : ruleSets) {
+            for (int i = 0; i < ruleSet.mChars.length(); i++) {
+                mTable[ruleSet.mChars.charAt(i)] = ruleSet.mReplacements[i];
+            }
+        }
+    }
+
+    /**
+     * Gets the replacement of a single char.
+     *
+     * @param ch {@link char} - The char to look up.
+     * @return {@link String} - The replacement of the char, or NULL if the char is not replaced.
+     * @since 1.3.0
+     */
+    @Nullable
+    public String replacementOf(final char ch) {
+        return (ch < mTable.length) ? mTable[ch] : null;
+    }
+
+    /**
+     * Transliterates a {@link String}. The input is scanned once, and the same instance is
+     * returned when it has no chars to replace.
+     *
+     * @param input {@link String} - The input to transliterate.
+     * @return {@link String} - The transliterated input.
+     * @throws IllegalArgumentException - In case the input is null.
+     * @since 1.3.0
+     */
+    @NonNull
+    public String transliterate(@NonNull final String input) {
+
+        Validate.notNull(input, "The input should be valid object.");
+
+        final int first = indexOfReplaced(input);
+        if (first < 0) {
+            return input;
+        }
+        final StringBuilder result = new StringBuilder(input.length() + 8);
+        result.append(input, 0, first);
+        return appendTransliterated(input, first, result).toString();
+    }
+
+    /**
+     * Transliterates a char sequence, appending the result to the given builder.
+     *
+     * @param input {@link CharSequence} - The input to transliterate.
+     * @param out   {@link StringBuilder} - The builder where the result will be appended.
+     * @return {@link StringBuilder} - The given builder.
+     * @throws IllegalArgumentException - In case the input or out is null.
+     * @since 1.3.0
+     */
+    @NonNull
+    public StringBuilder transliterate(@NonNull final CharSequence input, @NonNull final StringBuilder out) {
+
+        Validate.notNull(input, "The input should be valid object.");
+        Validate.notNull(out, "The out should be valid object.");
+
+        return appendTransliterated(input, 0, out);
+    }
+
+    /**
+     * Transliterates a char sequence, appending the result to the given {@link Appendable},
+     * e.g. a {@link java.io.Writer}. The untouched runs of chars are appended as whole
+     * sub-sequences.
+     *
+     * @param input {@link CharSequence} - The input to transliterate.
+     * @param out   {@link Appendable} - The destination where the result will be appended.
+     * @param <A>   The type of the destination.
+     * @return {@link Appendable} - The given destination.
+     * @throws IOException              - In case the destination cannot be written.
+     * @throws IllegalArgumentException - In case the input or out is null.
+     * @since 1.3.0
+     */
+    @NonNull
+    public <A extends Appendable> A transliterate(@NonNull final CharSequence input,
+                                                  @NonNull final A out) throws IOException {
+
+        Validate.notNull(input, "The input should be valid object.");
+        Validate.notNull(out, "The out should be valid object.");
+
+        final int length = input.length();
+        int runStart = 0;
+        for (int i = 0; i < length; i++) {
+            final String replacement = replacementOf(input.charAt(i));
+            if (replacement != null) {
+                out.append(input, runStart, i).append(replacement);
+                runStart = i + 1;
+            }
+        }
+        out.append(input, runStart, length);
+        return out;
+    }
+
+    /**
+     * Transliterates all the {@link String}s in a list. The null entries stay null, and the
+     * entries without chars to replace are kept as the same instances.
+     *
+     * @param inputs {@literal List<String>} - The inputs to transliterate.
+     * @return {@literal List<String>} - New list with the transliterated inputs, in the same
+     * order.
+     * @throws IllegalArgumentException - In case the inputs is null.
+     * @since 1.3.0
+     */
+    @NonNull
+    public List<String> transliterateAll(@NonNull final List<String> inputs) {
+
+        Validate.notNull(inputs, "The inputs should be valid object.");
+
+        final List<String> result = new ArrayList<>(inputs.size());
+        for (final String input : inputs) {
+            result.add((input != null) ? transliterate(input) : null);
+        }
+        return result;
+    }
+
+    /**
+     * Transliterates all the {@link String}s in a list in parallel chunks, using the shared
+     * fork-join pool of the library, see {@link #transliterateAll(String[], ForkJoinPool,
+     * boolean)}.
+     *
+     * @param inputs      {@literal List<String>} - The inputs to transliterate.
+     * @param deduplicate {@link boolean} - True if identical inputs should be transliterated
+     *                    only once.
+     * @return {@literal List<String>} - New list with the transliterated inputs, in the same
+     * order.
+     * @throws IllegalArgumentException - In case the inputs is null.
+     * @since 1.3.0
+     */
+    @NonNull
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    public List<String> transliterateAll(@NonNull final List<String> inputs, final boolean deduplicate) {
+
+        Validate.notNull(inputs, "The inputs should be valid object.");
+
+        final String[] results = transliterateAll(inputs.toArray(new String[0]), PoolHolder.POOL, deduplicate);
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    /**
+     * Transliterates all the {@link String}s in an array in parallel chunks, using the shared
+     * fork-join pool of the library, see {@link #transliterateAll(String[], ForkJoinPool,
+     * boolean)}.
+     *
+     * @param inputs      String[] - The inputs to transliterate.
+     * @param deduplicate {@link boolean} - True if identical inputs should be transliterated
+     *                    only once.
+     * @return String[] - New array with the transliterated inputs, in the same order.
+     * @throws IllegalArgumentException - In case the inputs is null.
+     * @since 1.3.0
+     */
+    @NonNull
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    public String[] transliterateAll(@NonNull final String[] inputs, final boolean deduplicate) {
+        return transliterateAll(inputs, PoolHolder.POOL, deduplicate);
+    }
+
+    /**
+     * Transliterates all the {@link String}s in an array in parallel. The array is split into
+     * chunks of {@link #PARALLEL_CHUNK_SIZE} inputs, which are transliterated by the given
+     * fork-join pool, and the results are written straight into their positions in the result
+     * array. The null entries stay null.
+     * <p>
+     * With deduplication the results are shared through a concurrent map for the whole batch,
+     * so every distinct input is transliterated once, and identical inputs get the same result
+     * instance. It pays off for batches with many repeated inputs, e.g. titles of product
+     * variants.
+     *
+     * @param inputs      String[] - The inputs to transliterate.
+     * @param pool        {@link ForkJoinPool} - The pool which will run the chunks.
+     * @param deduplicate {@link boolean} - True if identical inputs should be transliterated
+     *                    only once.
+     * @return String[] - New array with the transliterated inputs, in the same order.
+     * @throws IllegalArgumentException - In case the inputs or pool is null.
+     * @since 1.3.0
+     */
+    @NonNull
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    public String[] transliterateAll(@NonNull final String[] inputs, @NonNull final ForkJoinPool pool,
+                                     final boolean deduplicate) {
+
+        Validate.notNull(inputs, "The inputs should be valid object.");
+        Validate.notNull(pool, "The pool should be valid object.");
+
+        final String[] results = new String[inputs.length];
+        final ConcurrentHashMap<String, String> cache = deduplicate ? new ConcurrentHashMap<String, String>() : null;
+        if (inputs.length <= PARALLEL_CHUNK_SIZE) {
+            transliterateRange(inputs, results, cache, 0, inputs.length);
+        } else {
+            pool.invoke(new TransliterateTask(this, inputs, results, cache, 0, inputs.length));
+        }
+        return results;
+    }
+
+    /**
+     * Transliterates a range of the inputs into the same positions of the results.
+     *
+     * @param inputs  String[] - The inputs to transliterate.
+     * @param results String[] - The array which receives the results.
+     * @param cache   {@literal ConcurrentHashMap<String, String>} - The results shared by the
+     *                whole batch, or NULL if the inputs should not be deduplicated.
+     * @param from    {@link int} - The index of the first input, inclusive.
+     * @param to      {@link int} - The index of the last input, exclusive.
+     * @since 1.3.0
+     */
+    private void transliterateRange(@NonNull final String[] inputs, @NonNull final String[] results,
+                                    @Nullable final ConcurrentHashMap<String, String> cache,
+                                    final int from, final int to) {
+
+        for (int i = from; i < to; i++) {
+            final String input = inputs[i];
+            if (input == null) {
+                continue;
+            }
+            if (cache == null) {
+                results[i] = transliterate(input);
+                continue;
+            }
+            String result = cache.get(input);
+            if (result == null) {
+                result = transliterate(input);
+                final String previous = cache.putIfAbsent(input, result);
+                if (previous != null) {
+                    result = previous;
+                }
+            }
+            results[i] = result;
+        }
+    }
+
+    /**
+     * Checks whether the input has at least one char which should be replaced.
+     *
+     * @param input {@link CharSequence} - The input to check.
+     * @return {@link boolean} - True if the transliteration will change the input.
+     * @throws IllegalArgumentException - In case the input is null.
+     * @since 1.3.0
+     */
+    public boolean needsTransliteration(@NonNull final CharSequence input) {
+
+        Validate.notNull(input, "The input should be valid object.");
+        return indexOfReplaced(input) >= 0;
+    }
+
+    @NonNull
+    private StringBuilder appendTransliterated(@NonNull final CharSequence input, final int start,
+                                               @NonNull final StringBuilder out) {
+
+        final int length = input.length();
+        for (int i = start; i < length; i++) {
+            final char ch = input.charAt(i);
+            final String replacement = replacementOf(ch);
+            if (replacement != null) {
+                out.append(replacement);
+            } else {
+                out.append(ch);
+            }
+        }
+        return out;
+    }
+
+    private int indexOfReplaced(@NonNull final CharSequence input) {
+
+        final int length = input.length();
+        for (int i = 0; i < length; i++) {
+            if (replacementOf(input.charAt(i)) != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Fork-join task, which splits its range of inputs in halves, until the ranges are not
+     * bigger than {@link #PARALLEL_CHUNK_SIZE}.
+     *
+     * @since 1.3.0
+     */
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    private static final class TransliterateTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Transliterator mTransliterator;
+        private final String[] mInputs;
+        private final String[] mResults;
+        private final ConcurrentHashMap<String, String> mCache;
+        private final int mFrom;
+        private final int mTo;
+
+        TransliterateTask(@NonNull final Transliterator transliterator, @NonNull final String[] inputs,
+                          @NonNull final String[] results, @Nullable final ConcurrentHashMap<String, String> cache,
+                          final int from, final int to) {
+
+            mTransliterator = transliterator;
+            mInputs = inputs;
+            mResults = results;
+            mCache = cache;
+            mFrom = from;
+            mTo = to;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (mTo - mFrom <= PARALLEL_CHUNK_SIZE) {
+                mTransliterator.transliterateRange(mInputs, mResults, mCache, mFrom, mTo);
+                return;
+            }
+            final int middle = (mFrom + mTo) >>> 1;
+            invokeAll(new TransliterateTask(mTransliterator, mInputs, mResults, mCache, mFrom, middle),
+                    new TransliterateTask(mTransliterator, mInputs, mResults, mCache, middle, mTo));
+        }
+    }
+
+    /**
+     * Holder of the shared fork-join pool, which is created on first use, with parallelism
+     * equal to the amount of the available processors.
+     *
+     * @since 1.3.0
+     */
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    private static final class PoolHolder {
+
+        static final ForkJoinPool POOL = new ForkJoinPool();
+    }
+}
@@ -0,0 +1,437 @@
+package com.ntechniks.nstudios.androidutils;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import org.apache.commons.lang3.Validate;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Batch water-marking pipeline. Every image is decoded into a mutable {@link Bitmap}, marked in
+ * place by a {@link WaterMarkRenderer}, and encoded into its destination file. The images are
+ * processed concurrently by a fixed pool of worker threads, and the memory of the decoded
+ * bitmaps is limited by a budget: a worker waits before decoding, until the pixels of its image
+ * fit in the budget together with the images already in flight.
+ * <p>
+ * With a {@link BitmapReusePool}, the images are decoded into pooled bitmaps, which go back to the
+ * pool once encoded, so a long batch reuses the same few bitmaps instead of allocating one per
+ * image.
+ * <p>
+ * The pipeline can process many batches, one after another or concurrently. It should be shut
+ * down with {@link #shutdown()} when no longer needed, to stop its worker threads. The worker
+ * threads are daemon threads, so a forgotten pipeline does not keep the process alive.
+ *
+ * @author Nikola Georgiev
+ * @version 1.0
+ * @since 1.3.0
+ */
+public final class WaterMarkPipeline {
+
+    public static final String TAG = WaterMarkPipeline.class.getSimpleName();
+
+    /**
+     * The size of the buffer used when the marked images are encoded.
+     *
+     * @since 1.3.0
+     */
+    public static final int ENCODE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The amount of bytes a single decoded pixel takes, the images are decoded as
+     * {@link Bitmap.Config#ARGB_8888}.
+     */
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final WaterMarkRenderer mRenderer;
+    private final Bitmap.CompressFormat mFormat;
+    private final int mQuality;
+    private final ExecutorService mExecutor;
+    private final Semaphore mBudget;
+    private final int mBudgetKb;
+    private final BitmapReusePool mPool;
+
+    /**
+     * Single image of a batch.
+     *
+     * @since 1.3.0
+     */
+    public static final class Item {
+
+        private final File mSource;
+        private final File mDestination;
+        private final String mText;
+
+        /**
+         * Creates new batch item.
+         *
+         * @param source      {@link File} - The source image file.
+         * @param destination {@link File} - The file where the marked image will be written.
+         * @param text        {@link String} - The text of the water-mark.
+         * @throws IllegalArgumentException - In case any of the parameters is null.
+         * @since 1.3.0
+         */
+        public Item(@NonNull final File source, @NonNull final File destination, @NonNull final String text) {
+
+            Validate.notNull(source, "The source should be valid object.");
+            Validate.notNull(destination, "The destination should be valid object.");
+            Validate.notNull(text, "The text should be valid object.");
+
+            mSource = source;
+            mDestination = destination;
+            mText = text;
+        }
+
+        /**
+         * @return {@link File} - The source image file.
+         * @since 1.3.0
+         */
+        @NonNull
+        public File getSource() {
+            return mSource;
+        }
+
+        /**
+         * @return {@link File} - The file where the marked image will be written.
+         * @since 1.3.0
+         */
+        @NonNull
+        public File getDestination() {
+            return mDestination;
+        }
+
+        /**
+         * @return {@link String} - The text of the water-mark.
+         * @since 1.3.0
+         */
+        @NonNull
+        public String getText() {
+            return mText;
+        }
+
+        @Override
+        public String toString() {
+            return "Item{" + mSource.getAbsolutePath() + " -> " + mDestination.getAbsolutePath() + '}';
+        }
+    }
+
+    /**
+     * Receives the progress of a batch. The methods are called on the worker threads of the
+     * pipeline, so they should not touch the UI directly.
+     *
+     * @since 1.3.0
+     */
+    public interface Listener {
+
+        /**
+         * Called when an image was marked and written into its destination.
+         *
+         * @param item      {@link Item} - The completed item.
+         * @param completed {@link int} - The amount of completed items so far, including failed.
+         * @param total     {@link int} - The amount of items in the batch.
+         * @since 1.3.0
+         */
+        void onItemCompleted(@NonNull Item item, int completed, int total);
+
+        /**
+         * Called when an image could not be processed. The rest of the batch continues.
+         *
+         * @param item      {@link Item} - The failed item.
+         * @param error     {@link Throwable} - The reason of the failure.
+         * @param completed {@link int} - The amount of completed items so far, including failed.
+         * @param total     {@link int} - The amount of items in the batch.
+         * @since 1.3.0
+         */
+        void onItemFailed(@NonNull Item item, @NonNull Throwable error, int completed, int total);
+
+        /**
+         * Called once, after all the items of the batch were processed.
+         *
+         * @param succeeded {@link int} - The amount of successfully marked items.
+         * @param failed    {@link int} - The amount of failed items.
+         * @since 1.3.0
+         */
+        void onFinished(int succeeded, int failed);
+    }
+
+    /**
+     * Creates new pipeline, which encodes PNG images, uses a worker per available processor, and
+     * a quarter of the maximum heap as memory budget.
+     *
+     * @param renderer {@link WaterMarkRenderer} - The renderer which will draw the water-marks.
+     * @throws IllegalArgumentException - In case the renderer is null.
+     * @since 1.3.0
+     */
+    public WaterMarkPipeline(@NonNull final WaterMarkRenderer renderer) {
+        this(renderer, Bitmap.CompressFormat.PNG, 100, Runtime.getRuntime().availableProcessors(),
+                Runtime.getRuntime().maxMemory() / 4);
+    }
+
+    /**
+     * Creates new pipeline.
+     *
+     * @param renderer          {@link WaterMarkRenderer} - The renderer which will draw the
+     *                          water-marks.
+     * @param format            {@link Bitmap.CompressFormat} - The format of the written images.
+     * @param quality           {@link int} - The quality hint of the encoder, between 0 and 100.
+     * @param workerCount       {@link int} - The amount of images processed concurrently.
+     * @param memoryBudgetBytes {@link long} - The maximum amount of bytes of all the decoded
+     *                          images in flight. An image bigger than the whole budget is
+     *                          processed alone.
+     * @throws IllegalArgumentException - In case the renderer or format is null, or any of the
+     *                                  numbers is out of range.
+     * @since 1.3.0
+     */
+    public WaterMarkPipeline(@NonNull final WaterMarkRenderer renderer, @NonNull final Bitmap.CompressFormat format,
+                             @IntRange(from = 0, to = 100) final int quality, final int workerCount,
+                             final long memoryBudgetBytes) {
+        this(renderer, format, quality, workerCount, memoryBudgetBytes, null);
+    }
+
+    /**
+     * Creates new pipeline, which decodes the images into bitmaps taken from a pool.
+     *
+     * @param renderer          {@link WaterMarkRenderer} - The renderer which will draw the
+     *                          water-marks.
+     * @param format            {@link Bitmap.CompressFormat} - The format of the written images.
+     * @param quality           {@link int} - The quality hint of the encoder, between 0 and 100.
+     * @param workerCount       {@link int} - The amount of images processed concurrently.
+     * @param memoryBudgetBytes {@link long} - The maximum amount of bytes of all the decoded
+     *                          images in flight. An image bigger than the whole budget is
+     *                          processed alone.
+     * @param pool              {@link BitmapReusePool} - The pool of reusable bitmaps. Null to
+     *                          allocate and recycle a bitmap per image.
+     * @throws IllegalArgumentException - In case the renderer or format is null, or any of the
+     *                                  numbers is out of range.
+     * @since 1.3.0
+     */
+    public WaterMarkPipeline(@NonNull final WaterMarkRenderer renderer, @NonNull final Bitmap.CompressFormat format,
+                             @IntRange(from = 0, to = 100) final int quality, final int workerCount,
+                             final long memoryBudgetBytes, @Nullable final BitmapReusePool pool) {
+
+        Validate.notNull(renderer, "The renderer should be valid object.");
+        Validate.notNull(format, "The format should be valid object.");
+        Validate.inclusiveBetween(0, 100, quality, "The quality should be between 0 and 100.");
+        Validate.isTrue(workerCount > 0, "The workerCount should be positive.");
+        Validate.isTrue(memoryBudgetBytes >= 1024, "The memoryBudgetBytes should be at least 1KB.");
+
+        mRenderer = renderer;
+        mFormat = format;
+        mQuality = quality;
+        mExecutor = Executors.newFixedThreadPool(workerCount, new ThreadFactory() {
+
+            private final AtomicInteger mCount = new AtomicInteger();
+
+            @Override
+            public Thread newThread(@NonNull final Runnable runnable) {
+
+                final Thread thread = new Thread(runnable, TAG + '-' + mCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        // The permits are counted in KB, so budgets bigger than 2GB fit in int
+        mBudgetKb = (int) Math.min(memoryBudgetBytes / 1024, Integer.MAX_VALUE);
+        mBudget = new Semaphore(mBudgetKb, true);
+        mPool = pool;
+    }
+
+    /**
+     * Processes a batch of images and waits until all of them are done. The failures of single
+     * items are reported to the listener, and do not stop the rest of the batch.
+     *
+     * @param items    {@literal List<Item>} - The images to process.
+     * @param listener {@link Listener} - Receives the progress of the batch. Null-safe.
+     * @return {@link int} - The amount of successfully marked images.
+     * @throws InterruptedException     - In case the calling thread is interrupted while waiting.
+     *                                  The items already submitted are still processed.
+     * @throws IllegalArgumentException - In case the items are null or contain null.
+     * @since 1.3.0
+     */
+    @WorkerThread
+    public int process(@NonNull final List<Item> items, @Nullable final Listener listener) throws InterruptedException {
+
+        Validate.noNullElements(items, "The items should be valid objects.");
+
+        final int total = items.size();
+        final CountDownLatch latch = new CountDownLatch(total);
+        final AtomicInteger succeeded = new AtomicInteger();
+        final AtomicInteger completed = new AtomicInteger();
+
+        for (final Item item : items) {
+            final Runnable task = () -> {
+                try {
+                    processItem(item);
+                    succeeded.incrementAndGet();
+                    if (listener != null) {
+                        listener.onItemCompleted(item, completed.incrementAndGet(), total);
+                    }
+                } catch (final InterruptedException ie) {
+                    // Keep the interrupt for the executor, e.g. on shutdownNow()
+                    Thread.currentThread().interrupt();
+                    if (listener != null) {
+                        listener.onItemFailed(item, ie, completed.incrementAndGet(), total);
+                    }
+                } catch (final Exception | OutOfMemoryError e) {
+                    Debug.error(TAG, "water-mark " + item, "process", e);
+                    if (listener != null) {
+                        listener.onItemFailed(item, e, completed.incrementAndGet(), total);
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            };
+            try {
+                mExecutor.execute(task);
+            } catch (final RejectedExecutionException ree) {
+                if (listener != null) {
+                    listener.onItemFailed(item, ree, completed.incrementAndGet(), total);
+                }
+                latch.countDown();
+            }
+        }
+        latch.await();
+
+        if (listener != null) {
+            listener.onFinished(succeeded.get(), total - succeeded.get());
+        }
+        return succeeded.get();
+    }
+
+    /**
+     * Stops the worker threads of the pipeline. The images already submitted are still
+     * processed, but no new batches are accepted.
+     *
+     * @since 1.3.0
+     */
+    public void shutdown() {
+        mExecutor.shutdown();
+    }
+
+    /**
+     * Decodes, marks, and encodes a single image, holding its share of the memory budget while
+     * the decoded bitmap is alive.
+     *
+     * @param item {@link Item} - The image to process.
+     * @throws IOException          - In case the image cannot be decoded, marked, or written.
+     * @throws InterruptedException - In case the worker is interrupted while waiting for budget.
+     * @since 1.3.0
+     */
+    private void processItem(@NonNull final Item item) throws IOException, InterruptedException {
+
+        final String sourcePath = item.getSource().getAbsolutePath();
+
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(sourcePath, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            throw new IOException("Cannot read the image bounds of " + sourcePath);
+        }
+
+        final long costKb = (long) options.outWidth * options.outHeight * BYTES_PER_PIXEL / 1024 + 1;
+        final int permits = (int) Math.min(costKb, mBudgetKb);
+        mBudget.acquire(permits);
+        Bitmap bitmap = null;
+        try {
+            options.inJustDecodeBounds = false;
+            options.inMutable = true;
+            options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+            bitmap = decode(sourcePath, options);
+            if (bitmap == null) {
+                throw new IOException("Cannot decode the image " + sourcePath);
+            }
+            if (!mRenderer.markInPlace(bitmap, item.getText())) {
+                throw new IOException("Cannot place the water-mark on the image " + sourcePath);
+            }
+            encode(bitmap, item.getDestination());
+        } finally {
+            if (bitmap != null) {
+                release(bitmap);
+            }
+            mBudget.release(permits);
+        }
+    }
+
+    /**
+     * Decodes an image, into a pooled bitmap when the pipeline has a pool.
+     *
+     * @param sourcePath {@link String} - The path of the image.
+     * @param options    {@link BitmapFactory.Options} - The decode options, with the image bounds.
+     * @return {@link Bitmap} - The decoded image, or NULL if it cannot be decoded.
+     * @since 1.3.0
+     */
+    @Nullable
+    private Bitmap decode(@NonNull final String sourcePath, @NonNull final BitmapFactory.Options options) {
+
+        if (mPool == null) {
+            return BitmapFactory.decodeFile(sourcePath, options);
+        }
+
+        final Bitmap candidate = mPool.getDirty(options.outWidth, options.outHeight, options.inPreferredConfig);
+        Bitmap bitmap = null;
+        if (ImageUtils.canReuseBitmap(candidate, options.outWidth, options.outHeight, 1, options.inPreferredConfig)) {
+            options.inBitmap = candidate;
+            // A null result may mean the decoder refused the pooled bitmap, e.g. for unsupported
+            // formats, so the image is decoded again without it below
+            bitmap = BitmapFactory.decodeFile(sourcePath, options);
+        }
+        if (bitmap != candidate) {
+            options.inBitmap = null;
+            mPool.put(candidate);
+        }
+        return (bitmap != null) ? bitmap : BitmapFactory.decodeFile(sourcePath, options);
+    }
+
+    /**
+     * Releases a processed image, back to the pool when the pipeline has a pool.
+     *
+     * @param bitmap {@link Bitmap} - The processed image.
+     * @since 1.3.0
+     */
+    private void release(@NonNull final Bitmap bitmap) {
+
+        if (mPool != null) {
+            mPool.put(bitmap);
+        } else {
+            bitmap.recycle();
+        }
+    }
+
+    /**
+     * Encodes a marked image into its destination file, through a buffered stream.
+     *
+     * @param bitmap      {@link Bitmap} - The marked image.
+     * @param destination {@link File} - The destination file.
+     * @throws IOException - In case the file cannot be written.
+     * @since 1.3.0
+     */
+    private void encode(@NonNull final Bitmap bitmap, @NonNull final File destination) throws IOException {
+
+        final File parent = destination.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create the directory " + parent.getAbsolutePath());
+        }
+        try (final OutputStream out = new BufferedOutputStream(new FileOutputStream(destination), ENCODE_BUFFER_SIZE)) {
+            if (!bitmap.compress(mFormat, mQuality, out)) {
+                throw new IOException("Cannot encode the image " + destination.getAbsolutePath());
+            }
+        }
+    }
+}
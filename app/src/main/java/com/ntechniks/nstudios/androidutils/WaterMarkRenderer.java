@@ -0,0 +1,586 @@
+package com.ntechniks.nstudios.androidutils;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Point;
+import android.graphics.Rect;
+import android.graphics.Shader;
+import android.os.Build;
+import android.util.LruCache;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Reusable renderer of text water-marks. The renderer holds a single {@link Paint}, configured
+ * once with the color, alpha, size, and underline of the water-mark, and caches the measured
+ * bounds of the recently drawn texts, so marking a batch of images with the same text measures
+ * the text only once. The water-mark is placed at the bottom right corner of the image, using
+ * the real measured width of the text.
+ * <p>
+ * Besides marking a new copy of the image, the renderer can draw straight onto a mutable image,
+ * see {@link #markInPlace(Bitmap, String)}, or onto a reusable target image, see
+ * {@link #markInto(Bitmap, String, Bitmap)}, so a batch of images can be marked without
+ * allocating a full-frame bitmap per image.
+ * <p>
+ * The water-mark can also be repeated over the whole image, see
+ * {@link #markTiled(Bitmap, String)}. The text is then rendered only once into a small stamp
+ * bitmap, which is kept in a cache shared by all renderers, and the image is filled with the
+ * stamp by a single {@link BitmapShader} draw call.
+ * <p>
+ * The paint is never changed after the renderer is created, so a single renderer can be used to
+ * mark images from multiple threads.
+ *
+ * @author Nikola Georgiev
+ * @version 1.2
+ * @since 1.3.0
+ */
+public final class WaterMarkRenderer {
+
+    public static final String TAG = WaterMarkRenderer.class.getSimpleName();
+
+    /**
+     * The amount of texts which measured bounds are kept by the renderer.
+     *
+     * @since 1.3.0
+     */
+    public static final int TEXT_BOUNDS_CACHE_SIZE = 32;
+
+    /**
+     * The maximum amount of KB taken by the cached stamp bitmaps of all renderers.
+     *
+     * @since 1.3.0
+     */
+    public static final int STAMP_CACHE_SIZE_KB = 1024;
+
+    /**
+     * The rendered stamps of the tiled water-marks, keyed by the text and the configuration of
+     * the renderer, so renderers with the same configuration share their stamps. The evicted
+     * stamps are not recycled, because another thread may still draw with them.
+     */
+    private static final LruCache<StampKey, Stamp> sStamps = new LruCache<StampKey, Stamp>(STAMP_CACHE_SIZE_KB) {
+
+        @Override
+        protected int sizeOf(final StampKey key, final Stamp stamp) {
+            return stamp.mBitmap.getByteCount() / 1024 + 1;
+        }
+    };
+
+    private final int mColor;
+    private final int mAlpha;
+    private final int mSize;
+    private final boolean mUnderline;
+    private final Paint mPaint;
+    private final LruCache<String, Rect> mTextBounds;
+
+    /**
+     * Creates new renderer instance.
+     *
+     * @param color     {@link int} - The text color of the water-mark.
+     * @param alpha     {@link int} - The text alpha blending of the water-mark, between 0 and 255.
+     * @param size      {@link int} - The text size of the water-mark in pixels.
+     * @param underline {@link boolean} - Is there going to be a text underline. True if yes,
+     *                  otherwise false.
+     * @throws IllegalArgumentException - In case the alpha is out of range, or the size is not
+     *                                  positive.
+     * @since 1.3.0
+     */
+    public WaterMarkRenderer(@ColorInt final int color, @IntRange(from = 0, to = 255) final int alpha,
+                             final int size, final boolean underline) {
+
+        Validate.inclusiveBetween(0, 255, alpha, "The alpha should be between 0 and 255.");
+        Validate.isTrue(size > 0, "The size should be positive.");
+
+        mColor = color;
+        mAlpha = alpha;
+        mSize = size;
+        mUnderline = underline;
+
+        mPaint = new Paint();
+        mPaint.setColor(color);
+        mPaint.setAlpha(alpha);
+        mPaint.setTextSize(size);
+        mPaint.setAntiAlias(true);
+        mPaint.setUnderlineText(underline);
+
+        mTextBounds = new LruCache<String, Rect>(TEXT_BOUNDS_CACHE_SIZE) {
+
+            @Override
+            protected Rect create(final String text) {
+
+                final Rect bounds = new Rect();
+                mPaint.getTextBounds(text, 0, text.length(), bounds);
+                // The advance covers the spacing after the last glyph as well
+                bounds.right = Math.max(bounds.right, (int) Math.ceil(mPaint.measureText(text)));
+                return bounds;
+            }
+        };
+    }
+
+    /**
+     * Checks whether the renderer draws with the given configuration.
+     *
+     * @param color     {@link int} - The text color of the water-mark.
+     * @param alpha     {@link int} - The text alpha blending of the water-mark.
+     * @param size      {@link int} - The text size of the water-mark.
+     * @param underline {@link boolean} - Is there going to be a text underline.
+     * @return {@link boolean} - True if the renderer has exactly the same configuration.
+     * @since 1.3.0
+     */
+    public boolean matches(@ColorInt final int color, final int alpha, final int size, final boolean underline) {
+        return mColor == color && mAlpha == alpha && mSize == size && mUnderline == underline;
+    }
+
+    /**
+     * Gets the measured bounds of a text, drawn with the paint of the renderer. The bounds are
+     * relative to the baseline origin of the text, and include the advance width of the text.
+     *
+     * @param text {@link String} - The text to measure.
+     * @return {@link Rect} - New copy of the cached text bounds.
+     * @throws IllegalArgumentException - In case the text is null.
+     * @since 1.3.0
+     */
+    @NonNull
+    public Rect getTextBounds(@NonNull final String text) {
+
+        Validate.notNull(text, "The text should be valid object.");
+        return new Rect(mTextBounds.get(text));
+    }
+
+    /**
+     * Determines the text water-mark position on an image with the given size. The right edge
+     * of the text is placed one text size away from the right edge of the image, and the
+     * baseline is placed two text sizes above the bottom edge of the image.
+     *
+     * @param width  {@link int} - The width of the image.
+     * @param height {@link int} - The height of the image.
+     * @param text   {@link String} - The text of the water-mark.
+     * @return {@link Point} - The baseline origin of the text, or NULL if the text does not fit
+     * in the image.
+     * @throws IllegalArgumentException - In case the text is null.
+     * @since 1.3.0
+     */
+    @Nullable
+    public Point getLocation(final int width, final int height, @NonNull final String text) {
+
+        Validate.notNull(text, "The text should be valid object.");
+
+        final Rect bounds = mTextBounds.get(text);
+        final int x = width - mSize - bounds.right;
+        final int y = height - (mSize * 2);
+        if (x < 0 || y + bounds.top < 0) {
+            return null;
+        }
+        return new Point(x, y);
+    }
+
+    /**
+     * Draws the water-mark on a canvas with the given size.
+     *
+     * @param canvas {@link Canvas} - The canvas where the water-mark will be drawn.
+     * @param width  {@link int} - The width of the image on the canvas.
+     * @param height {@link int} - The height of the image on the canvas.
+     * @param text   {@link String} - The text of the water-mark.
+     * @return {@link boolean} - True if the water-mark was drawn, false if the text does not fit
+     * in the image.
+     * @throws IllegalArgumentException - In case the canvas or text is null.
+     * @since 1.3.0
+     */
+    public boolean draw(@NonNull final Canvas canvas, final int width, final int height, @NonNull final String text) {
+
+        Validate.notNull(canvas, "The canvas should be valid object.");
+
+        final Point location = getLocation(width, height, text);
+        if (location == null) {
+            Debug.warn(TAG, "The water-mark text does not fit in " + width + "x" + height + " image.", "draw");
+            return false;
+        }
+        canvas.drawText(text, location.x, location.y, mPaint);
+        return true;
+    }
+
+    /**
+     * Places the water-mark on a new copy of the source image.
+     *
+     * @param source {@link Bitmap} - The source image. It stays untouched.
+     * @param text   {@link String} - The text of the water-mark.
+     * @return {@link Bitmap} - New image with the water-mark on it, or NULL if the copy cannot
+     * be created, or the text does not fit in the image.
+     * @throws IllegalArgumentException - In case the source or text is null.
+     * @since 1.3.0
+     */
+    @Nullable
+    public Bitmap mark(@NonNull final Bitmap source, @NonNull final String text) {
+
+        final String methodName = "mark";
+
+        Validate.notNull(source, "The source should be valid object.");
+        Validate.notNull(text, "The text should be valid object.");
+
+        final int width = source.getWidth();
+        final int height = source.getHeight();
+        if (getLocation(width, height, text) == null) {
+            Debug.warn(TAG, "The water-mark text does not fit in " + width + "x" + height + " image.", methodName);
+            return null;
+        }
+
+        final Bitmap result;
+        try {
+            result = Bitmap.createBitmap(width, height, configOf(source));
+        } catch (final Exception e) {
+            Debug.error(TAG, "create the water-marked Bitmap", methodName, e);
+            return null;
+        }
+        final Canvas canvas = new Canvas(result);
+        canvas.drawBitmap(source, 0, 0, null);
+        draw(canvas, width, height, text);
+        return result;
+    }
+
+    /**
+     * Places the water-mark on a copy of the source image, drawn onto a target taken from the
+     * pool, see {@link #markInto(Bitmap, String, Bitmap)}. The result can be given back to the
+     * pool, once it is no longer needed.
+     *
+     * @param source {@link Bitmap} - The source image. It stays untouched.
+     * @param text   {@link String} - The text of the water-mark.
+     * @param pool   {@link BitmapReusePool} - The pool of reusable bitmaps.
+     * @return {@link Bitmap} - Pooled image with the water-mark on it, or NULL if the text does
+     * not fit in the image.
+     * @throws IllegalArgumentException - In case the source, text, or pool is null.
+     * @since 1.3.0
+     */
+    @Nullable
+    public Bitmap mark(@NonNull final Bitmap source, @NonNull final String text, @NonNull final BitmapReusePool pool) {
+
+        Validate.notNull(source, "The source should be valid object.");
+        Validate.notNull(pool, "The pool should be valid object.");
+
+        final Bitmap.Config config = configOf(source);
+        final Bitmap target = pool.getDirty(source.getWidth(), source.getHeight(), config);
+        if (!markInto(source, text, target)) {
+            pool.put(target);
+            return null;
+        }
+        return target;
+    }
+
+    /**
+     * Draws the water-mark straight onto the given image, without any copy.
+     *
+     * @param image {@link Bitmap} - The mutable image where the water-mark will be drawn.
+     * @param text  {@link String} - The text of the water-mark.
+     * @return {@link boolean} - True if the water-mark was drawn, false if the image is not
+     * mutable, or the text does not fit in the image.
+     * @throws IllegalArgumentException - In case the image or text is null.
+     * @since 1.3.0
+     */
+    public boolean markInPlace(@NonNull final Bitmap image, @NonNull final String text) {
+
+        Validate.notNull(image, "The image should be valid object.");
+
+        if (!image.isMutable()) {
+            Debug.warn(TAG, "The image is not mutable.", "markInPlace");
+            return false;
+        }
+        return draw(new Canvas(image), image.getWidth(), image.getHeight(), text);
+    }
+
+    /**
+     * Copies the source image onto a reusable target image, and draws the water-mark on the
+     * target. The target should have the size and config of the source, or
+     * {@link Bitmap.Config#ARGB_8888} when the config of the source is unknown. On API 19 and
+     * above, a target with different size or config is reconfigured, when its allocation is big
+     * enough.
+     *
+     * @param source {@link Bitmap} - The source image. It stays untouched, unless it is the
+     *               target itself.
+     * @param text   {@link String} - The text of the water-mark.
+     * @param target {@link Bitmap} - The mutable image, which will receive the water-marked copy.
+     * @return {@link boolean} - True if the water-mark was drawn, false if the target cannot
+     * hold the source image, or the text does not fit in the image.
+     * @throws IllegalArgumentException - In case the source, text, or target is null.
+     * @since 1.3.0
+     */
+    public boolean markInto(@NonNull final Bitmap source, @NonNull final String text, @NonNull final Bitmap target) {
+
+        final String methodName = "markInto";
+
+        Validate.notNull(source, "The source should be valid object.");
+        Validate.notNull(target, "The target should be valid object.");
+
+        if (source == target) {
+            return markInPlace(target, text);
+        }
+        final int width = source.getWidth();
+        final int height = source.getHeight();
+        final Bitmap.Config config = configOf(source);
+        if (!target.isMutable() || !fitTarget(target, width, height, config)) {
+            Debug.warn(TAG, "The target cannot hold " + width + "x" + height + " " + config + " image.", methodName);
+            return false;
+        }
+        if (getLocation(width, height, text) == null) {
+            Debug.warn(TAG, "The water-mark text does not fit in " + width + "x" + height + " image.", methodName);
+            return false;
+        }
+
+        // Transparent pixels of the source should not keep the previous target content
+        if (source.hasAlpha()) {
+            target.eraseColor(Color.TRANSPARENT);
+        }
+        final Canvas canvas = new Canvas(target);
+        canvas.drawBitmap(source, 0, 0, null);
+        return draw(canvas, width, height, text);
+    }
+
+    /**
+     * Gets the stamp of a tiled water-mark. The stamp holds the text once, with a gap of one text
+     * size around it, so the repeated texts do not touch each other.
+     *
+     * @param text {@link String} - The text of the water-mark.
+     * @return {@link Bitmap} - The cached stamp, which should not be modified or recycled.
+     * @throws IllegalArgumentException - In case the text is null.
+     * @since 1.3.0
+     */
+    @NonNull
+    public Bitmap getStamp(@NonNull final String text) {
+
+        Validate.notNull(text, "The text should be valid object.");
+
+        return obtainStamp(text).mBitmap;
+    }
+
+    /**
+     * Gets the cached stamp of a tiled water-mark together with its shader paint, rendering it
+     * when it is not cached yet.
+     *
+     * @param text {@link String} - The text of the water-mark.
+     * @return {@link Stamp} - The cached stamp.
+     * @since 1.3.0
+     */
+    @NonNull
+    private Stamp obtainStamp(@NonNull final String text) {
+
+        final StampKey key = new StampKey(text, mColor, mAlpha, mSize, mUnderline);
+        Stamp stamp = sStamps.get(key);
+        if (stamp == null) {
+            final Rect bounds = mTextBounds.get(text);
+            final int left = Math.min(bounds.left, 0);
+            final Bitmap bitmap = Bitmap.createBitmap(Math.max(bounds.right - left, 1) + mSize,
+                    Math.max(bounds.height(), 1) + mSize, Bitmap.Config.ARGB_8888);
+            new Canvas(bitmap).drawText(text, mSize / 2f - left, mSize / 2f - bounds.top, mPaint);
+            stamp = new Stamp(bitmap);
+            sStamps.put(key, stamp);
+        }
+        return stamp;
+    }
+
+    /**
+     * Fills a canvas with the given size with the repeated water-mark, starting from the top
+     * left corner.
+     *
+     * @param canvas {@link Canvas} - The canvas where the water-mark will be drawn.
+     * @param width  {@link int} - The width of the image on the canvas.
+     * @param height {@link int} - The height of the image on the canvas.
+     * @param text   {@link String} - The text of the water-mark.
+     * @throws IllegalArgumentException - In case the canvas or text is null.
+     * @since 1.3.0
+     */
+    public void drawTiled(@NonNull final Canvas canvas, final int width, final int height, @NonNull final String text) {
+
+        Validate.notNull(canvas, "The canvas should be valid object.");
+        Validate.notNull(text, "The text should be valid object.");
+
+        canvas.drawRect(0, 0, width, height, obtainStamp(text).mPaint);
+    }
+
+    /**
+     * Repeats the water-mark over a new copy of the source image.
+     *
+     * @param source {@link Bitmap} - The source image. It stays untouched.
+     * @param text   {@link String} - The text of the water-mark.
+     * @return {@link Bitmap} - New image with the repeated water-mark on it, or NULL if the copy
+     * cannot be created.
+     * @throws IllegalArgumentException - In case the source or text is null.
+     * @since 1.3.0
+     */
+    @Nullable
+    public Bitmap markTiled(@NonNull final Bitmap source, @NonNull final String text) {
+
+        Validate.notNull(source, "The source should be valid object.");
+        Validate.notNull(text, "The text should be valid object.");
+
+        final int width = source.getWidth();
+        final int height = source.getHeight();
+        final Bitmap result;
+        try {
+            result = Bitmap.createBitmap(width, height, configOf(source));
+        } catch (final Exception e) {
+            Debug.error(TAG, "create the water-marked Bitmap", "markTiled", e);
+            return null;
+        }
+        final Canvas canvas = new Canvas(result);
+        canvas.drawBitmap(source, 0, 0, null);
+        drawTiled(canvas, width, height, text);
+        return result;
+    }
+
+    /**
+     * Repeats the water-mark straight over the given image, without any copy.
+     *
+     * @param image {@link Bitmap} - The mutable image where the water-mark will be drawn.
+     * @param text  {@link String} - The text of the water-mark.
+     * @return {@link boolean} - True if the water-mark was drawn, false if the image is not
+     * mutable.
+     * @throws IllegalArgumentException - In case the image or text is null.
+     * @since 1.3.0
+     */
+    public boolean markTiledInPlace(@NonNull final Bitmap image, @NonNull final String text) {
+
+        Validate.notNull(image, "The image should be valid object.");
+
+        if (!image.isMutable()) {
+            Debug.warn(TAG, "The image is not mutable.", "markTiledInPlace");
+            return false;
+        }
+        drawTiled(new Canvas(image), image.getWidth(), image.getHeight(), text);
+        return true;
+    }
+
+    /**
+     * Gets the config of the copies of a source image. Sources with a config unknown to the API
+     * report null, and are copied as {@link Bitmap.Config#ARGB_8888}.
+     *
+     * @param source {@link Bitmap} - The source image.
+     * @return {@link Bitmap.Config} - The config of the copies.
+     * @since 1.3.0
+     */
+    @NonNull
+    private static Bitmap.Config configOf(@NonNull final Bitmap source) {
+
+        final Bitmap.Config config = source.getConfig();
+        return (config != null) ? config : Bitmap.Config.ARGB_8888;
+    }
+
+    /**
+     * Makes sure the target has the given size and config, reconfiguring it when possible.
+     *
+     * @param target {@link Bitmap} - The mutable target image.
+     * @param width  {@link int} - The required width.
+     * @param height {@link int} - The required height.
+     * @param config {@link Bitmap.Config} - The required config.
+     * @return {@link boolean} - True if the target has the given size and config.
+     * @since 1.3.0
+     */
+    private static boolean fitTarget(@NonNull final Bitmap target, final int width, final int height,
+                                     @NonNull final Bitmap.Config config) {
+
+        if (target.getWidth() == width && target.getHeight() == height && target.getConfig() == config) {
+            return true;
+        }
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.KITKAT) {
+            return false;
+        }
+        if (target.getAllocationByteCount() < (long) width * height * bytesPerPixel(config)) {
+            return false;
+        }
+        try {
+            target.reconfigure(width, height, config);
+            return true;
+        } catch (final IllegalArgumentException e) {
+            Debug.error(TAG, "reconfigure the target Bitmap", "fitTarget", e);
+            return false;
+        }
+    }
+
+    /**
+     * @param config {@link Bitmap.Config} - The bitmap config.
+     * @return {@link int} - The amount of bytes a single pixel takes with the given config.
+     * @since 1.3.0
+     */
+    @SuppressWarnings("deprecation")
+    static int bytesPerPixel(@NonNull final Bitmap.Config config) {
+
+        switch (config) {
+            case ALPHA_8:
+                return 1;
+            case RGB_565:
+            case ARGB_4444:
+                return 2;
+            default:
+                return (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O && config == Bitmap.Config.RGBA_F16) ? 8 : 4;
+        }
+    }
+
+    /**
+     * A cached stamp, with the paint which repeats it. The paint is only read by the draw calls,
+     * so the threads drawing the same stamp share it.
+     *
+     * @since 1.3.0
+     */
+    private static final class Stamp {
+
+        private final Bitmap mBitmap;
+        private final Paint mPaint;
+
+        Stamp(@NonNull final Bitmap bitmap) {
+            mBitmap = bitmap;
+            mPaint = new Paint();
+            mPaint.setShader(new BitmapShader(bitmap, Shader.TileMode.REPEAT, Shader.TileMode.REPEAT));
+        }
+    }
+
+    /**
+     * The key of a cached stamp.
+     *
+     * @since 1.3.0
+     */
+    private static final class StampKey {
+
+        private final String mText;
+        private final int mColor;
+        private final int mAlpha;
+        private final int mSize;
+        private final boolean mUnderline;
+
+        StampKey(@NonNull final String text, final int color, final int alpha, final int size,
+                 final boolean underline) {
+            mText = text;
+            mColor = color;
+            mAlpha = alpha;
+            mSize = size;
+            mUnderline = underline;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof StampKey)) {
+                return false;
+            }
+            final StampKey other = (StampKey) o;
+            return mColor == other.mColor && mAlpha == other.mAlpha && mSize == other.mSize
+                    && mUnderline == other.mUnderline && mText.equals(other.mText);
+        }
+
+        @Override
+        public int hashCode() {
+
+            int result = mText.hashCode();
+            result = 31 * result + mColor;
+            result = 31 * result + mAlpha;
+            result = 31 * result + mSize;
+            return 31 * result + (mUnderline ? 1 : 0);
+        }
+    }
+}
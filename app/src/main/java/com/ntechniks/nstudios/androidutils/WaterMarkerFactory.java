@@ -19,9 +19,6 @@ package com.ntechniks.nstudios.androidutils;
  */
 
 import android.graphics.Bitmap;
-import android.graphics.Canvas;
-import android.graphics.Paint;
-import android.graphics.Point;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -30,7 +27,7 @@ import androidx.annotation.Nullable;
  * Official Git repository at https://github.com/marulka/android-utils
  *
  * @author Nikola Georgiev
- * @version 1.3
+ * @version 1.5
  * @since 1.0.0
  */
 public class WaterMarkerFactory {
@@ -42,6 +39,14 @@ public class WaterMarkerFactory {
      */
     private static final String TAG = "WaterMarkerFactory";
 
+    /**
+     * The renderer used by the last call, reused while the calls have the
+     * same configuration, e.g. when a whole batch of images is marked.
+     *
+     * @since 1.3.0
+     */
+    private static volatile WaterMarkRenderer sLastRenderer;
+
     /**
      * Main constructor with private accessor to prevent instantiating the class.
      *
@@ -55,19 +60,23 @@ public class WaterMarkerFactory {
 
     /**
      * Places a water-mark text label at the specific bottom right position on a
-     * {@link Bitmap} image.
+     * {@link Bitmap} image. The text is drawn by a {@link WaterMarkRenderer},
+     * which is reused by the following calls with the same color, alpha, size,
+     * and underline.
      *
      * @param oldImage  {@link Bitmap} - The source {@link Bitmap} image where the
      *                  water-mark will be placed.
      * @param watermark {@link String} - The text {@link String} which will be placed
      *                  as a water-mark.
      * @param color     int - The text color of the water-mark.
-     * @param alpha     int - The text alpha blending of the water-mark.
+     * @param alpha     int - The text alpha blending of the water-mark. Values
+     *                  above 255 are clamped.
      * @param size      int - The text size of the water-mark.
      * @param underline boolean - Is there going to be a text underline. True if yes,
      *                  otherwise false.
-     * @return {@link Bitmap}- Returns the source {@link Bitmap} image,
-     * including the water-mark on it.
+     * @return {@link Bitmap}- Returns new copy of the source {@link Bitmap}
+     * image, including the water-mark on it, or null if the water-mark text
+     * does not fit in the image.
      * @since 1.0
      */
     @Nullable
@@ -79,34 +88,186 @@ public class WaterMarkerFactory {
 
         if (InitCheck.pass(TAG, methodName, oldImage, watermark, alpha, size)) {
 
-            Point location = null;
-            final Paint paint = new Paint();
+            try {
+                result = getRenderer(color, alpha, size, underline).mark(oldImage, watermark);
+
+            } catch (final Exception e) {
+                Debug.error(TAG, "placing the water-mark on the Bitmap", methodName, e);
+            }
+        }
+        return result;
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Places a water-mark text label at the specific bottom right position on a
+     * copy of the source image, see
+     * {@link #mark(Bitmap, String, int, int, int, boolean)}. The copy is drawn
+     * onto a {@link Bitmap} taken from the pool, and can be given back to the
+     * pool once it is no longer needed.
+     *
+     * @param oldImage  {@link Bitmap} - The source {@link Bitmap} image where the
+     *                  water-mark will be placed.
+     * @param watermark {@link String} - The text {@link String} which will be placed
+     *                  as a water-mark.
+     * @param color     int - The text color of the water-mark.
+     * @param alpha     int - The text alpha blending of the water-mark. Values
+     *                  above 255 are clamped.
+     * @param size      int - The text size of the water-mark.
+     * @param underline boolean - Is there going to be a text underline. True if yes,
+     *                  otherwise false.
+     * @param pool      {@link BitmapReusePool} - The pool of reusable
+     *                  {@link Bitmap}s.
+     * @return {@link Bitmap}- Returns pooled copy of the source {@link Bitmap}
+     * image, including the water-mark on it, or null if the water-mark text
+     * does not fit in the image.
+     * @since 1.3.0
+     */
+    @Nullable
+    public static Bitmap mark(@NonNull Bitmap oldImage, @NonNull String watermark, int color, int alpha, int size,
+                              boolean underline, @NonNull BitmapReusePool pool) {
+
+        final String methodName = "mark";
+        Bitmap result = null;
+
+        if (InitCheck.pass(TAG, methodName, oldImage, watermark, pool, alpha, size)) {
 
             try {
+                result = getRenderer(color, alpha, size, underline).mark(oldImage, watermark, pool);
 
-                final int width = oldImage.getWidth();
-                final int height = oldImage.getHeight();
+            } catch (final Exception e) {
+                Debug.error(TAG, "placing the water-mark on the Bitmap", methodName, e);
+            }
+        }
+        return result;
+    }
 
-                location = getLocation(width, height, watermark, size);
+    // =================================================================================================================================
 
-                result = Bitmap.createBitmap(width, height, oldImage.getConfig());
+    /**
+     * Places a water-mark text label at the specific bottom right position
+     * straight on a {@link Bitmap} image, see
+     * {@link #mark(Bitmap, String, int, int, int, boolean)}. When the image is
+     * mutable, no new {@link Bitmap} is allocated and the image itself is
+     * returned, otherwise the water-mark is placed on a new copy of the image.
+     *
+     * @param image     {@link Bitmap} - The {@link Bitmap} image where the
+     *                  water-mark will be placed.
+     * @param watermark {@link String} - The text {@link String} which will be placed
+     *                  as a water-mark.
+     * @param color     int - The text color of the water-mark.
+     * @param alpha     int - The text alpha blending of the water-mark. Values
+     *                  above 255 are clamped.
+     * @param size      int - The text size of the water-mark.
+     * @param underline boolean - Is there going to be a text underline. True if yes,
+     *                  otherwise false.
+     * @return {@link Bitmap}- Returns the image, or its copy when the image is
+     * not mutable, including the water-mark on it, or null if the water-mark
+     * text does not fit in the image.
+     * @since 1.3.0
+     */
+    @Nullable
+    public static Bitmap markInPlace(@NonNull Bitmap image, @NonNull String watermark, int color, int alpha,
+                                     int size, boolean underline) {
+
+        final String methodName = "markInPlace";
+        Bitmap result = null;
 
+        if (InitCheck.pass(TAG, methodName, image, watermark, alpha, size)) {
+
+            try {
+                final WaterMarkRenderer renderer = getRenderer(color, alpha, size, underline);
+                if (!image.isMutable()) {
+                    result = renderer.mark(image, watermark);
+                } else if (renderer.markInPlace(image, watermark)) {
+                    result = image;
+                }
             } catch (final Exception e) {
-                Debug.error(TAG, "decoding file to Bitmap", methodName, e);
+                Debug.error(TAG, "placing the water-mark on the Bitmap", methodName, e);
             }
+        }
+        return result;
+    }
 
-            if (InitCheck.pass(TAG, methodName, location, result)) {
+    // =================================================================================================================================
 
-                final Canvas canvas = new Canvas(result);
-                canvas.drawBitmap(oldImage, 0, 0, null);
+    /**
+     * Places a water-mark text label at the specific bottom right position on a
+     * copy of the source image, drawn onto a reusable target {@link Bitmap},
+     * see {@link WaterMarkRenderer#markInto(Bitmap, String, Bitmap)}. Marking a
+     * batch of images into the same target allocates no new {@link Bitmap}s.
+     *
+     * @param source    {@link Bitmap} - The source {@link Bitmap} image.
+     * @param watermark {@link String} - The text {@link String} which will be placed
+     *                  as a water-mark.
+     * @param target    {@link Bitmap} - The mutable {@link Bitmap}, which will
+     *                  receive the water-marked copy of the source.
+     * @param color     int - The text color of the water-mark.
+     * @param alpha     int - The text alpha blending of the water-mark. Values
+     *                  above 255 are clamped.
+     * @param size      int - The text size of the water-mark.
+     * @param underline boolean - Is there going to be a text underline. True if yes,
+     *                  otherwise false.
+     * @return boolean - True if the water-mark was placed on the target,
+     * otherwise false.
+     * @since 1.3.0
+     */
+    public static boolean markInto(@NonNull Bitmap source, @NonNull String watermark, @NonNull Bitmap target,
+                                   int color, int alpha, int size, boolean underline) {
+
+        final String methodName = "markInto";
+
+        if (InitCheck.pass(TAG, methodName, source, watermark, target, alpha, size)) {
+
+            try {
+                return getRenderer(color, alpha, size, underline).markInto(source, watermark, target);
+
+            } catch (final Exception e) {
+                Debug.error(TAG, "placing the water-mark on the target Bitmap", methodName, e);
+            }
+        }
+        return false;
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Repeats a water-mark text label over the whole {@link Bitmap} image, e.g.
+     * a "DRAFT" pattern. The text is rendered only once into a small stamp,
+     * cached by text, color, alpha, size, and underline, and the image is
+     * filled with the stamp by a single shader draw call, see
+     * {@link WaterMarkRenderer#markTiled(Bitmap, String)}.
+     *
+     * @param oldImage  {@link Bitmap} - The source {@link Bitmap} image where the
+     *                  water-mark will be placed.
+     * @param watermark {@link String} - The text {@link String} which will be
+     *                  repeated as a water-mark.
+     * @param color     int - The text color of the water-mark.
+     * @param alpha     int - The text alpha blending of the water-mark. Values
+     *                  above 255 are clamped.
+     * @param size      int - The text size of the water-mark, which is also the
+     *                  gap between the repeated texts.
+     * @param underline boolean - Is there going to be a text underline. True if yes,
+     *                  otherwise false.
+     * @return {@link Bitmap}- Returns new copy of the source {@link Bitmap}
+     * image, including the repeated water-mark on it, or null on failure.
+     * @since 1.3.0
+     */
+    @Nullable
+    public static Bitmap markTiled(@NonNull Bitmap oldImage, @NonNull String watermark, int color, int alpha,
+                                   int size, boolean underline) {
+
+        final String methodName = "markTiled";
+        Bitmap result = null;
+
+        if (InitCheck.pass(TAG, methodName, oldImage, watermark, alpha, size)) {
 
-                paint.setColor(color);
-                paint.setAlpha(alpha);
-                paint.setTextSize(size);
-                paint.setAntiAlias(true);
-                paint.setUnderlineText(underline);
+            try {
+                result = getRenderer(color, alpha, size, underline).markTiled(oldImage, watermark);
 
-                canvas.drawText(watermark, location.x, location.y, paint);
+            } catch (final Exception e) {
+                Debug.error(TAG, "placing the tiled water-mark on the Bitmap", methodName, e);
             }
         }
         return result;
@@ -115,31 +276,75 @@ public class WaterMarkerFactory {
     // =================================================================================================================================
 
     /**
-     * Determines the text water-mark position on the image, according to the
-     * text size.
+     * Repeats a water-mark text label straight over the whole {@link Bitmap}
+     * image, see {@link #markTiled(Bitmap, String, int, int, int, boolean)}.
+     * When the image is mutable, no new {@link Bitmap} is allocated and the
+     * image itself is returned, otherwise the water-mark is placed on a new
+     * copy of the image.
      *
-     * @param width     int - The width of the image.
-     * @param height    int - The height of the image.
-     * @param watermark {@link String} - The text {@link String}, which will be used
-     *                  as water-mark.
+     * @param image     {@link Bitmap} - The {@link Bitmap} image where the
+     *                  water-mark will be placed.
+     * @param watermark {@link String} - The text {@link String} which will be
+     *                  repeated as a water-mark.
+     * @param color     int - The text color of the water-mark.
+     * @param alpha     int - The text alpha blending of the water-mark. Values
+     *                  above 255 are clamped.
      * @param size      int - The text size of the water-mark.
-     * @return {@link Point} - The point where the text water-mark will be
-     * placed at.
-     * @since 1.0
+     * @param underline boolean - Is there going to be a text underline. True if yes,
+     *                  otherwise false.
+     * @return {@link Bitmap}- Returns the image, or its copy when the image is
+     * not mutable, including the repeated water-mark on it, or null on failure.
+     * @since 1.3.0
      */
     @Nullable
-    private static Point getLocation(int width, int height, @NonNull String watermark, int size) {
+    public static Bitmap markTiledInPlace(@NonNull Bitmap image, @NonNull String watermark, int color, int alpha,
+                                          int size, boolean underline) {
 
-        if (InitCheck.pass(TAG, "getLocation", watermark, width, height, size)) {
+        final String methodName = "markTiledInPlace";
+        Bitmap result = null;
 
-            final int length = watermark.length();
-            if ((length * size) < width) {
+        if (InitCheck.pass(TAG, methodName, image, watermark, alpha, size)) {
 
-                final int x = width - (length * size);
-                final int y = height - (size * 2);
-                return new Point(x, y);
+            try {
+                final WaterMarkRenderer renderer = getRenderer(color, alpha, size, underline);
+                if (!image.isMutable()) {
+                    result = renderer.markTiled(image, watermark);
+                } else if (renderer.markTiledInPlace(image, watermark)) {
+                    result = image;
+                }
+            } catch (final Exception e) {
+                Debug.error(TAG, "placing the tiled water-mark on the Bitmap", methodName, e);
             }
         }
-        return null;
+        return result;
+    }
+
+    // =================================================================================================================================
+
+    /**
+     * Gets a renderer with the given configuration. The renderer of the last
+     * call is reused when it has the same configuration. The alpha is clamped
+     * between 0 and 255, as {@link android.graphics.Paint#setAlpha(int)} did
+     * before the renderer validated it.
+     *
+     * @param color     int - The text color of the water-mark.
+     * @param alpha     int - The text alpha blending of the water-mark.
+     * @param size      int - The text size of the water-mark.
+     * @param underline boolean - Is there going to be a text underline.
+     * @return {@link WaterMarkRenderer} - The renderer with the given
+     * configuration.
+     * @since 1.3.0
+     */
+    @NonNull
+    static WaterMarkRenderer getRenderer(int color, int alpha, int size, boolean underline) {
+
+        final int clampedAlpha = Math.max(0, Math.min(255, alpha));
+
+        WaterMarkRenderer renderer = sLastRenderer;
+        if (renderer == null || !renderer.matches(color, clampedAlpha, size, underline)) {
+            renderer = new WaterMarkRenderer(color, clampedAlpha, size, underline);
+            sLastRenderer = renderer;
+        }
+        return renderer;
     }
 }
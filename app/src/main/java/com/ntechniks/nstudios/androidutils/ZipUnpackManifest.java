@@ -0,0 +1,192 @@
+package com.ntechniks.nstudios.androidutils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Small on-disk manifest, which remembers the CRC-32, size, and time of every zip entry
+ * extracted into a destination folder. It is used by the incremental unpacking in
+ * {@link ResUtils}, so only the entries which changed since the last unpacking are extracted.
+ * <p>
+ * The manifest is stored as a UTF-8 text file with a single line per entry:
+ * {@code crc<TAB>size<TAB>time<TAB>name}.
+ *
+ * @author Nikola Georgiev
+ * @version 1.0
+ * @since 1.3.0
+ */
+final class ZipUnpackManifest {
+
+    private static final String TAG = ZipUnpackManifest.class.getSimpleName();
+
+    /**
+     * The name of the manifest file, stored in the destination folder.
+     *
+     * @since 1.3.0
+     */
+    static final String FILE_NAME = ".zip-unpack-manifest";
+
+    private static final String HEADER = "zip-unpack-manifest 1";
+    private static final char SEPARATOR = '\t';
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final Map<String, Record> mRecords = new HashMap<>();
+
+    /**
+     * The details of a single extracted entry.
+     *
+     * @since 1.3.0
+     */
+    static final class Record {
+
+        final long crc;
+        final long size;
+        final long time;
+
+        Record(final long crc, final long size, final long time) {
+            this.crc = crc;
+            this.size = size;
+            this.time = time;
+        }
+
+        boolean matches(final long crc, final long size, final long time) {
+            return this.crc == crc && this.size == size && this.time == time;
+        }
+    }
+
+    /**
+     * Loads the manifest stored in the given folder. A missing or unreadable manifest results
+     * in an empty one, so all the entries are extracted again.
+     *
+     * @param folder {@link File} - The destination folder of the unpacking.
+     * @return {@link ZipUnpackManifest} - The loaded manifest.
+     * @since 1.3.0
+     */
+    @NonNull
+    static ZipUnpackManifest load(@NonNull final File folder) {
+
+        final ZipUnpackManifest manifest = new ZipUnpackManifest();
+        final File file = new File(folder, FILE_NAME);
+        if (!file.isFile()) {
+            return manifest;
+        }
+        try (final BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), UTF_8))) {
+
+            if (!HEADER.equals(reader.readLine())) {
+                return manifest;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final int first = line.indexOf(SEPARATOR);
+                final int second = line.indexOf(SEPARATOR, first + 1);
+                final int third = line.indexOf(SEPARATOR, second + 1);
+                if (first < 0 || second < 0 || third < 0) {
+                    continue;
+                }
+                final long crc = Long.parseLong(line.substring(0, first));
+                final long size = Long.parseLong(line.substring(first + 1, second));
+                final long time = Long.parseLong(line.substring(second + 1, third));
+                manifest.put(line.substring(third + 1), crc, size, time);
+            }
+        } catch (final IOException | NumberFormatException e) {
+            Debug.error(TAG, "read the manifest " + file.getAbsolutePath(), "load", e);
+            manifest.mRecords.clear();
+        }
+        return manifest;
+    }
+
+    /**
+     * Stores the manifest into the given folder. The manifest is written into a temporary file
+     * first, so an interrupted write never leaves a broken manifest behind.
+     *
+     * @param folder {@link File} - The destination folder of the unpacking.
+     * @throws IOException - In case the manifest cannot be written.
+     * @since 1.3.0
+     */
+    void store(@NonNull final File folder) throws IOException {
+
+        final File file = new File(folder, FILE_NAME);
+        final File tempFile = new File(folder, FILE_NAME + ".tmp");
+        try (final Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(tempFile), UTF_8))) {
+
+            writer.write(HEADER);
+            writer.write('\n');
+            for (final Map.Entry<String, Record> entry : mRecords.entrySet()) {
+                final Record record = entry.getValue();
+                writer.write(Long.toString(record.crc));
+                writer.write(SEPARATOR);
+                writer.write(Long.toString(record.size));
+                writer.write(SEPARATOR);
+                writer.write(Long.toString(record.time));
+                writer.write(SEPARATOR);
+                writer.write(entry.getKey());
+                writer.write('\n');
+            }
+        }
+        if (!tempFile.renameTo(file)) {
+            FileUtils.deleteFileIfExists(tempFile);
+            throw new IOException("Cannot replace the manifest " + file.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Puts the details of an extracted entry. Names which cannot be stored in a single line
+     * are ignored, so such entries are always extracted.
+     *
+     * @param name {@link String} - The name of the zip entry.
+     * @param crc  {@link long} - The CRC-32 of the entry data.
+     * @param size {@link long} - The uncompressed size of the entry.
+     * @param time {@link long} - The modification time of the entry.
+     * @since 1.3.0
+     */
+    void put(@NonNull final String name, final long crc, final long size, final long time) {
+
+        if (name.indexOf('\n') < 0 && name.indexOf('\r') < 0) {
+            mRecords.put(name, new Record(crc, size, time));
+        }
+    }
+
+    /**
+     * @param name {@link String} - The name of the zip entry.
+     * @return {@link Record} - The details of the entry, or NULL if the entry is not known.
+     * @since 1.3.0
+     */
+    @Nullable
+    Record get(@NonNull final String name) {
+        return mRecords.get(name);
+    }
+
+    /**
+     * @param name {@link String} - The name of the zip entry.
+     * @return {@link boolean} - True if the entry is known by the manifest.
+     * @since 1.3.0
+     */
+    boolean contains(@NonNull final String name) {
+        return mRecords.containsKey(name);
+    }
+
+    /**
+     * @return {@literal Set<String>} - The names of all the entries known by the manifest.
+     * @since 1.3.0
+     */
+    @NonNull
+    Set<String> names() {
+        return mRecords.keySet();
+    }
+}
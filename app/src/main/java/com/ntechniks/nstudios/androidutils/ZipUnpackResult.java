@@ -0,0 +1,127 @@
+package com.ntechniks.nstudios.androidutils;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aggregated result of a zip archive unpacking. The counters are updated concurrently by the
+ * extraction workers, so the result is safe to read from any thread once the unpacking is
+ * complete.
+ *
+ * @author Nikola Georgiev
+ * @version 1.0
+ * @since 1.3.0
+ */
+public final class ZipUnpackResult {
+
+    private final AtomicInteger mExtractedCount = new AtomicInteger();
+    private final AtomicInteger mDirectoryCount = new AtomicInteger();
+    private final AtomicInteger mSkippedCount = new AtomicInteger();
+    private final AtomicInteger mDeletedCount = new AtomicInteger();
+    private final AtomicLong mBytesWritten = new AtomicLong();
+    private final Queue<String> mFailedEntries = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Package-private constructor, the results are created only by the unpacking methods.
+     *
+     * @since 1.3.0
+     */
+    ZipUnpackResult() {
+        // Nothing to implement here.
+    }
+
+    void onFileExtracted(final long bytesWritten) {
+        mExtractedCount.incrementAndGet();
+        mBytesWritten.addAndGet(bytesWritten);
+    }
+
+    void onDirectoryCreated() {
+        mDirectoryCount.incrementAndGet();
+    }
+
+    void onEntrySkipped() {
+        mSkippedCount.incrementAndGet();
+    }
+
+    void onFileDeleted() {
+        mDeletedCount.incrementAndGet();
+    }
+
+    void onEntryFailed(@NonNull final String entryName) {
+        mFailedEntries.add(entryName);
+    }
+
+    /**
+     * @return {@link int} - The amount of files written to the destination folder.
+     * @since 1.3.0
+     */
+    public int getExtractedCount() {
+        return mExtractedCount.get();
+    }
+
+    /**
+     * @return {@link int} - The amount of directory entries created in the destination folder.
+     * @since 1.3.0
+     */
+    public int getDirectoryCount() {
+        return mDirectoryCount.get();
+    }
+
+    /**
+     * @return {@link int} - The amount of entries left untouched, because their destination
+     * files already exist and should not be overridden, or did not change since the last
+     * incremental unpacking.
+     * @since 1.3.0
+     */
+    public int getSkippedCount() {
+        return mSkippedCount.get();
+    }
+
+    /**
+     * @return {@link int} - The amount of files and directories deleted from the destination
+     * folder, because their entries disappeared from the archive.
+     * @since 1.3.0
+     */
+    public int getDeletedCount() {
+        return mDeletedCount.get();
+    }
+
+    /**
+     * @return {@link long} - The total size in bytes of all the extracted files.
+     * @since 1.3.0
+     */
+    public long getBytesWritten() {
+        return mBytesWritten.get();
+    }
+
+    /**
+     * @return {@literal List<String>} - The names of the entries which could not be extracted.
+     * @since 1.3.0
+     */
+    @NonNull
+    public List<String> getFailedEntries() {
+        return Collections.unmodifiableList(new ArrayList<>(mFailedEntries));
+    }
+
+    /**
+     * @return {@link boolean} - True if all the entries were extracted or skipped without errors.
+     * @since 1.3.0
+     */
+    public boolean isSuccessful() {
+        return mFailedEntries.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ZipUnpackResult{extracted=" + getExtractedCount() + ", directories="
+                + getDirectoryCount() + ", skipped=" + getSkippedCount() + ", deleted="
+                + getDeletedCount() + ", bytes=" + getBytesWritten() + ", failed=" + mFailedEntries.size() + '}';
+    }
+}
@@ -0,0 +1,77 @@
+package com.ntechniks.nstudios.androidutils;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ByteBufferPoolTest {
+
+    @Test
+    public void sizeForShouldRoundUpToTheSizeClassBoundaries() {
+
+        assertEquals(ByteBufferPool.DEFAULT_BUFFER_SIZE, ByteBufferPool.sizeFor(0L));
+        assertEquals(ByteBufferPool.DEFAULT_BUFFER_SIZE, ByteBufferPool.sizeFor(-1L));
+        assertEquals(8 * 1024, ByteBufferPool.sizeFor(1L));
+        assertEquals(8 * 1024, ByteBufferPool.sizeFor(8 * 1024L));
+        assertEquals(16 * 1024, ByteBufferPool.sizeFor(8 * 1024L + 1));
+        assertEquals(512 * 1024, ByteBufferPool.sizeFor(256 * 1024L + 1));
+        assertEquals(512 * 1024, ByteBufferPool.sizeFor(512 * 1024L));
+        assertEquals(512 * 1024, ByteBufferPool.sizeFor(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void releaseShouldKeepOnlyTheIdleCapPerClass() {
+
+        final ByteBufferPool pool = new ByteBufferPool(1);
+        final ByteBuffer first = pool.acquire(8 * 1024);
+        final ByteBuffer second = pool.acquire(8 * 1024);
+        pool.release(first);
+        pool.release(second);
+
+        assertSame(first, pool.acquire(8 * 1024));
+        final ByteBuffer third = pool.acquire(8 * 1024);
+        assertNotSame(first, third);
+        assertNotSame(second, third);
+    }
+
+    @Test
+    public void acquireShouldReturnReleasedBufferCleared() {
+
+        final ByteBufferPool pool = new ByteBufferPool(2);
+        final ByteBuffer buffer = pool.acquire(16 * 1024);
+        buffer.putLong(42L);
+        buffer.flip();
+        pool.release(buffer);
+
+        final ByteBuffer reused = pool.acquire(16 * 1024);
+        assertSame(buffer, reused);
+        assertTrue(reused.hasArray());
+        assertEquals(0, reused.position());
+        assertEquals(16 * 1024, reused.limit());
+    }
+
+    @Test
+    public void releaseShouldIgnoreBuffersOutsideTheSizeClasses() {
+
+        final ByteBufferPool pool = new ByteBufferPool(2);
+        final ByteBuffer odd = ByteBuffer.allocate(10 * 1024);
+        pool.release(odd);
+
+        assertNotSame(odd, pool.acquire(10 * 1024));
+    }
+
+    @Test
+    public void releaseShouldIgnoreDirectBuffers() {
+
+        final ByteBufferPool pool = new ByteBufferPool(2);
+        final ByteBuffer direct = ByteBuffer.allocateDirect(8 * 1024);
+        pool.release(direct);
+
+        assertNotSame(direct, pool.acquire(8 * 1024));
+    }
+}
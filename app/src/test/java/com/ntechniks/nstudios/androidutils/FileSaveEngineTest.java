@@ -0,0 +1,120 @@
+package com.ntechniks.nstudios.androidutils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class FileSaveEngineTest {
+
+    private static final int CONTENT_SIZE = 100 * 1024 + 7;
+
+    @Rule
+    public final TemporaryFolder mFolder = new TemporaryFolder();
+
+    @Test
+    public void saveShouldCopyStreamWithPooledBuffer() throws IOException {
+
+        final byte[] content = randomContent();
+        final File file = mFolder.newFile();
+
+        assertEquals(CONTENT_SIZE, FileSaveEngine.save(new TrickleInputStream(content), file));
+        assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    public void saveShouldCopyStreamWithKnownLength() throws IOException {
+
+        final byte[] content = randomContent();
+        final File file = mFolder.newFile();
+
+        assertEquals(CONTENT_SIZE, FileSaveEngine.save(new TrickleInputStream(content), file, CONTENT_SIZE));
+        assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    public void saveShouldCopyStreamWithCallerHeapBuffer() throws IOException {
+
+        final byte[] content = randomContent();
+        final File file = mFolder.newFile();
+        final ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+
+        assertEquals(CONTENT_SIZE, FileSaveEngine.save(new TrickleInputStream(content), file, buffer));
+        assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+        assertEquals(0, buffer.position());
+        assertEquals(buffer.capacity(), buffer.limit());
+    }
+
+    @Test
+    public void saveShouldCopyStreamWithCallerSlicedBuffer() throws IOException {
+
+        final byte[] content = randomContent();
+        final File file = mFolder.newFile();
+        final ByteBuffer backing = ByteBuffer.allocate(12 * 1024);
+        backing.position(3 * 1024);
+        final ByteBuffer buffer = backing.slice();
+
+        assertEquals(CONTENT_SIZE, FileSaveEngine.save(new TrickleInputStream(content), file, buffer));
+        assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    public void saveShouldCopyStreamWithCallerDirectBuffer() throws IOException {
+
+        final byte[] content = randomContent();
+        final File file = mFolder.newFile();
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(16 * 1024);
+
+        assertEquals(CONTENT_SIZE, FileSaveEngine.save(new TrickleInputStream(content), file, buffer));
+        assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    public void saveShouldTruncateExistingFile() throws IOException {
+
+        final byte[] content = {1, 2, 3};
+        final File file = mFolder.newFile();
+        Files.write(file.toPath(), randomContent());
+
+        assertEquals(content.length, FileSaveEngine.save(new ByteArrayInputStream(content), file));
+        assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+    }
+
+    private static byte[] randomContent() {
+
+        final byte[] content = new byte[CONTENT_SIZE];
+        new Random(42).nextBytes(content);
+        return content;
+    }
+
+    /**
+     * Non-file stream, which returns fewer bytes than requested, like the inflating streams.
+     */
+    private static final class TrickleInputStream extends FilterInputStream {
+
+        TrickleInputStream(final byte[] content) {
+            super(new ByteArrayInputStream(content));
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            return super.read(b, off, Math.min(len, 1000));
+        }
+
+        @Override
+        public int available() {
+            return 0;
+        }
+    }
+}
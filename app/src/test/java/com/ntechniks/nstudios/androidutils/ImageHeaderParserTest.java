@@ -0,0 +1,121 @@
+package com.ntechniks.nstudios.androidutils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ImageHeaderParserTest {
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    @Test
+    public void parseShouldReadPngSize() throws IOException {
+
+        final ImageHeaderParser.ImageHeader header = parse(0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n',
+                0, 0, 0, 13, 'I', 'H', 'D', 'R', 0, 0, 0x07, 0x80, 0, 0, 0x04, 0x38, 8, 6, 0, 0, 0);
+
+        assertHeader(ImageHeaderParser.Format.PNG, 1920, 1080, header);
+    }
+
+    @Test
+    public void parseShouldReadGifSize() throws IOException {
+
+        final ImageHeaderParser.ImageHeader header = parse('G', 'I', 'F', '8', '9', 'a', 0x40, 0x01, 0xF0, 0x00,
+                0, 0, 0);
+
+        assertHeader(ImageHeaderParser.Format.GIF, 320, 240, header);
+    }
+
+    @Test
+    public void parseShouldReadAllWebpChunks() throws IOException {
+
+        // Lossy: frame tag, start code, 14 bit sizes
+        assertHeader(ImageHeaderParser.Format.WEBP, 640, 480, parse('R', 'I', 'F', 'F', 0, 0, 0, 0,
+                'W', 'E', 'B', 'P', 'V', 'P', '8', ' ', 0, 0, 0, 0, 0, 0, 0, 0x9D, 0x01, 0x2A, 0x80, 0x02, 0xE0, 0x01));
+
+        // Lossless: signature, then width - 1 and height - 1 packed in 14 bits each
+        final int bits = (640 - 1) | ((480 - 1) << 14);
+        assertHeader(ImageHeaderParser.Format.WEBP, 640, 480, parse('R', 'I', 'F', 'F', 0, 0, 0, 0,
+                'W', 'E', 'B', 'P', 'V', 'P', '8', 'L', 0, 0, 0, 0, 0x2F,
+                bits & 0xFF, (bits >>> 8) & 0xFF, (bits >>> 16) & 0xFF, (bits >>> 24) & 0xFF, 0));
+
+        // Extended: flags, then width - 1 and height - 1 in 24 bits each
+        assertHeader(ImageHeaderParser.Format.WEBP, 4000, 3000, parse('R', 'I', 'F', 'F', 0, 0, 0, 0,
+                'W', 'E', 'B', 'P', 'V', 'P', '8', 'X', 10, 0, 0, 0, 0, 0, 0, 0,
+                0x9F, 0x0F, 0x00, 0xB7, 0x0B, 0x00));
+    }
+
+    @Test
+    public void parseShouldReadJpegSizeAfterOtherSegments() throws IOException {
+
+        final ImageHeaderParser.ImageHeader header = parse(0xFF, 0xD8,
+                // APP0 JFIF
+                0xFF, 0xE0, 0x00, 0x10, 'J', 'F', 'I', 'F', 0, 1, 1, 0, 0, 1, 0, 1, 0, 0,
+                // DHT shares the frame marker range, but should be skipped
+                0xFF, 0xC4, 0x00, 0x04, 0, 0,
+                // SOF2: precision, height, width
+                0xFF, 0xC2, 0x00, 0x11, 8, 0x0B, 0xB8, 0x0F, 0xA0, 3);
+
+        assertHeader(ImageHeaderParser.Format.JPEG, 4000, 3000, header);
+        assertEquals(ImageHeaderParser.ORIENTATION_NORMAL, header.getOrientation());
+    }
+
+    @Test
+    public void parseShouldReadJpegExifOrientationInBothByteOrders() throws IOException {
+
+        final ImageHeaderParser.ImageHeader intel = parse(0xFF, 0xD8,
+                0xFF, 0xE1, 0x00, 0x22, 'E', 'x', 'i', 'f', 0, 0,
+                'I', 'I', 42, 0, 8, 0, 0, 0,
+                1, 0, 0x12, 0x01, 3, 0, 1, 0, 0, 0, 6, 0, 0, 0, 0, 0, 0, 0,
+                0xFF, 0xC0, 0x00, 0x11, 8, 0x01, 0xE0, 0x02, 0x80, 3);
+
+        assertHeader(ImageHeaderParser.Format.JPEG, 640, 480, intel);
+        assertEquals(6, intel.getOrientation());
+        assertTrue(intel.isTransposed());
+
+        final ImageHeaderParser.ImageHeader motorola = parse(0xFF, 0xD8,
+                0xFF, 0xE1, 0x00, 0x22, 'E', 'x', 'i', 'f', 0, 0,
+                'M', 'M', 0, 42, 0, 0, 0, 8,
+                0, 1, 0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, 3, 0, 0, 0, 0, 0, 0,
+                0xFF, 0xC0, 0x00, 0x11, 8, 0x01, 0xE0, 0x02, 0x80, 3);
+
+        assertHeader(ImageHeaderParser.Format.JPEG, 640, 480, motorola);
+        assertEquals(3, motorola.getOrientation());
+    }
+
+    @Test
+    public void parseShouldReturnNullForUnknownOrTruncatedFiles() throws IOException {
+
+        assertNull(parse('B', 'M', 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0));
+        assertNull(parse(0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13));
+        assertNull(parse(0xFF, 0xD8, 0xFF, 0xE0, 0x00, 0x10, 'J', 'F', 'I', 'F', 0, 1));
+    }
+
+    private ImageHeaderParser.ImageHeader parse(final int... bytes) throws IOException {
+
+        final File file = mFolder.newFile();
+        try (final FileOutputStream out = new FileOutputStream(file)) {
+            for (final int value : bytes) {
+                out.write(value);
+            }
+        }
+        return ImageHeaderParser.parse(file);
+    }
+
+    private static void assertHeader(final ImageHeaderParser.Format format, final int width, final int height,
+                                     final ImageHeaderParser.ImageHeader header) {
+
+        assertEquals(format, header.getFormat());
+        assertEquals(width, header.getWidth());
+        assertEquals(height, header.getHeight());
+    }
+}
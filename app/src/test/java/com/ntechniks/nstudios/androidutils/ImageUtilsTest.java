@@ -0,0 +1,26 @@
+package com.ntechniks.nstudios.androidutils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ImageUtilsTest {
+
+    @Test
+    public void calculateInSampleSizeShouldKeepBothSidesAboveTheRequestedSize() {
+
+        assertEquals(1, ImageUtils.calculateInSampleSize(1000, 800, 1000, 800));
+        assertEquals(2, ImageUtils.calculateInSampleSize(4000, 3000, 1080, 1080));
+        assertEquals(4, ImageUtils.calculateInSampleSize(4000, 3000, 501, 376));
+        assertEquals(8, ImageUtils.calculateInSampleSize(4000, 3000, 500, 375));
+        assertEquals(16, ImageUtils.calculateInSampleSize(4000, 3000, 100, 100));
+    }
+
+    @Test
+    public void calculateInSampleSizeShouldNotUpscale() {
+
+        assertEquals(1, ImageUtils.calculateInSampleSize(200, 100, 400, 400));
+        assertEquals(1, ImageUtils.calculateInSampleSize(0, 0, 100, 100));
+        assertEquals(1, ImageUtils.calculateInSampleSize(4000, 3000, 0, 100));
+    }
+}
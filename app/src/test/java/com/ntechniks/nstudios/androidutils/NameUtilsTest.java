@@ -0,0 +1,137 @@
+package com.ntechniks.nstudios.androidutils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class NameUtilsTest {
+
+    @After
+    public void tearDown() {
+        NameUtils.disableEscapeCache();
+    }
+
+    @Test
+    public void escapeShouldReturnValidNameUntouched() {
+
+        final String name = "products_2020";
+
+        assertSame(name, NameUtils.escape(name));
+    }
+
+    @Test
+    public void escapeShouldReplaceInvalidCharsWithTheirValue() {
+
+        assertEquals("price_46_net", NameUtils.escape("price.net"));
+        assertEquals("_1st_32_column", NameUtils.escape("1st column"));
+        assertEquals("__45_id", NameUtils.escape("-id"));
+    }
+
+    @Test
+    public void escapeCacheShouldCountHitsAndMisses() {
+
+        NameUtils.enableEscapeCache(16);
+        assertTrue(NameUtils.isEscapeCacheEnabled());
+
+        final String first = NameUtils.escape("price.net");
+        final String second = NameUtils.escape("price.net");
+        NameUtils.escape("1st column");
+
+        assertEquals("price_46_net", first);
+        assertSame(first, second);
+        assertEquals(1, NameUtils.getEscapeCacheHitCount());
+        assertEquals(2, NameUtils.getEscapeCacheMissCount());
+    }
+
+    @Test
+    public void escapeCacheShouldEvictLeastRecentlyUsedNameAtMaxSize() {
+
+        NameUtils.enableEscapeCache(4);
+        for (int i = 0; i < 4; i++) {
+            NameUtils.escape("column." + i);
+        }
+        // Uses the first name again, so the second one is the least recently used
+        NameUtils.escape("column.0");
+        NameUtils.escape("column.4");
+        assertEquals(1, NameUtils.getEscapeCacheHitCount());
+        assertEquals(5, NameUtils.getEscapeCacheMissCount());
+
+        NameUtils.escape("column.0");
+        NameUtils.escape("column.2");
+        NameUtils.escape("column.3");
+        NameUtils.escape("column.4");
+        assertEquals(5, NameUtils.getEscapeCacheHitCount());
+
+        assertEquals("column_46_1", NameUtils.escape("column.1"));
+        assertEquals(6, NameUtils.getEscapeCacheMissCount());
+    }
+
+    @Test
+    public void escapeCacheShouldResetOnResizeAndDisable() {
+
+        NameUtils.enableEscapeCache(8);
+        NameUtils.escape("price.net");
+        NameUtils.escape("price.net");
+
+        NameUtils.enableEscapeCache(2);
+        assertEquals(0, NameUtils.getEscapeCacheHitCount());
+        assertEquals(0, NameUtils.getEscapeCacheMissCount());
+        assertEquals("price_46_net", NameUtils.escape("price.net"));
+        assertEquals(1, NameUtils.getEscapeCacheMissCount());
+
+        NameUtils.disableEscapeCache();
+        assertFalse(NameUtils.isEscapeCacheEnabled());
+        assertEquals(0, NameUtils.getEscapeCacheHitCount());
+        assertEquals("price_46_net", NameUtils.escape("price.net"));
+    }
+
+    @Test
+    public void escapeCacheShouldStayCorrectWhileResizedAndDisabledInUse() throws Exception {
+
+        NameUtils.enableEscapeCache(32);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(new Callable<Boolean>() {
+
+                    @Override
+                    public Boolean call() {
+
+                        for (int i = 0; i < 20000; i++) {
+                            final int n = i % 100;
+                            if (!("col_46_" + n).equals(NameUtils.escape("col." + n))) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (int i = 0; i < 200; i++) {
+                if (i % 3 == 0) {
+                    NameUtils.disableEscapeCache();
+                } else {
+                    NameUtils.enableEscapeCache(1 + i % 50);
+                }
+                Thread.yield();
+            }
+            for (final Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.ntechniks.nstudios.androidutils;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(Debug.class)
+public class ReferenceEncodeUtilsTest {
+
+    @Test
+    public void encodeShouldPadBlocksToMultiplier() {
+
+        assertEquals(2010113, ReferenceEncodeUtils.encodeRequestCode("1/13", 1, '/'));
+        assertEquals(1123, ReferenceEncodeUtils.encodeRequestCode("2/3", 1, '/'));
+        assertEquals(2990199, ReferenceEncodeUtils.encodeRequestCode("1/99", 99, '/'));
+    }
+
+    @Test
+    public void decodeShouldReturnEncodedValues() {
+
+        final Map<String, Integer> values = ReferenceEncodeUtils.decode(2070513);
+
+        assertEquals(7, (int) values.get(ReferenceEncodeUtils.KEY_ITEM_INDEX));
+        assertEquals(5, (int) values.get(ReferenceEncodeUtils.KEY_PAGE_ID));
+        assertEquals(13, (int) values.get(ReferenceEncodeUtils.KEY_TOTAL_COUNT));
+    }
+
+    @Test
+    public void decodeToLongShouldPackEncodedValues() {
+
+        final long packed = ReferenceEncodeUtils.decodeToLong(2070513);
+
+        assertEquals(7, ReferenceEncodeUtils.unpackItemIndex(packed));
+        assertEquals(5, ReferenceEncodeUtils.unpackPageId(packed));
+        assertEquals(13, ReferenceEncodeUtils.unpackTotalCount(packed));
+    }
+
+    @Test
+    public void decodeShouldFillReusableHolder() {
+
+        PowerMockito.mockStatic(Debug.class);
+        final DecodedRequestCode holder = new DecodedRequestCode();
+
+        assertTrue(ReferenceEncodeUtils.decode(2070513, holder));
+        assertEquals(7, holder.getItemIndex());
+        assertEquals(5, holder.getPageId());
+        assertEquals(13, holder.getTotalCount());
+
+        assertFalse(ReferenceEncodeUtils.decode(20705, holder));
+        assertFalse(holder.isValid());
+        assertEquals(-1, holder.getPageId());
+    }
+
+    @Test
+    public void fieldAccessorsShouldMatchDecode() {
+
+        assertEquals(7, ReferenceEncodeUtils.itemIndexOf(2070513));
+        assertEquals(5, ReferenceEncodeUtils.pageIdOf(2070513));
+        assertEquals(13, ReferenceEncodeUtils.totalCountOf(2070513));
+        assertEquals("5/13", ReferenceEncodeUtils.decodePageRefNumber(2070513));
+        assertEquals(7, ReferenceEncodeUtils.decodeItemIndex(2070513));
+    }
+
+    @Test
+    public void invalidCodesShouldNotBeDecoded() {
+
+        PowerMockito.mockStatic(Debug.class);
+
+        assertEquals(-1, ReferenceEncodeUtils.decodeToLong(-2070513));
+        assertEquals(-1, ReferenceEncodeUtils.decodeToLong(20705));
+        assertTrue(ReferenceEncodeUtils.decode(0).isEmpty());
+        assertEquals(-1, ReferenceEncodeUtils.encodeRequestCode("100/1000", 1, '/'));
+    }
+
+    @Test
+    public void longCodesShouldRoundTripLargeCatalogs() {
+
+        final long code = ReferenceEncodeUtils.encodeRequestCodeLong("1000/1500", 1, '/');
+        assertEquals(4000110001500L, code);
+
+        final long packed = ReferenceEncodeUtils.decodeToLong(code);
+        assertEquals(1, ReferenceEncodeUtils.unpackItemIndex(packed));
+        assertEquals(1000, ReferenceEncodeUtils.unpackPageId(packed));
+        assertEquals(1500, ReferenceEncodeUtils.unpackTotalCount(packed));
+
+        final long biggest = ReferenceEncodeUtils.encodeLong(999999, 999999, 999999);
+        assertEquals(999999, ReferenceEncodeUtils.unpackTotalCount(ReferenceEncodeUtils.decodeToLong(biggest)));
+    }
+
+    @Test
+    public void packedCodesShouldHoldFieldsWithoutDecoding() {
+
+        final long code = ReferenceEncodeUtils.encodePacked(12, 3000, ReferenceEncodeUtils.PACKED_FIELD_MAX);
+
+        assertEquals(12, ReferenceEncodeUtils.unpackItemIndex(code));
+        assertEquals(3000, ReferenceEncodeUtils.unpackPageId(code));
+        assertEquals(ReferenceEncodeUtils.PACKED_FIELD_MAX, ReferenceEncodeUtils.unpackTotalCount(code));
+        assertEquals(code, ReferenceEncodeUtils.encodeRequestCodePacked("3000/2097151", 12, '/'));
+    }
+
+    @Test
+    public void outOfRangeFieldsShouldNotBeEncoded() {
+
+        PowerMockito.mockStatic(Debug.class);
+
+        assertEquals(-1, ReferenceEncodeUtils.encodeLong(0, 1000000, 1));
+        assertEquals(-1, ReferenceEncodeUtils.encodePacked(0, ReferenceEncodeUtils.PACKED_FIELD_MAX + 1, 1));
+        assertEquals(-1, ReferenceEncodeUtils.encodePacked(-1, 1, 1));
+        assertEquals(-1, ReferenceEncodeUtils.encodePacked(0, 0, 1));
+    }
+}
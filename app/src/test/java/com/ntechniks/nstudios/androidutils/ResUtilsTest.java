@@ -4,19 +4,30 @@ import android.content.Context;
 import android.content.res.Resources;
 import android.net.Uri;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Random;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -26,6 +37,11 @@ import static org.powermock.api.mockito.PowerMockito.spy;
 @PrepareForTest({Debug.class, FileUtils.class, Uri.class})
 public class ResUtilsTest {
 
+    private static final String PERMISSIONS = "rwxrwx---";
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
     @Test
     public void positiveTestUnpackZipResource() throws IOException {
 
@@ -61,4 +77,105 @@ public class ResUtilsTest {
 
         ResUtils.unpackZipResource(123, null, "destinationFolder");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void incrementalUnpackOfZipFileShouldSkipUnchangedEntries() throws Exception {
+
+        mockStatics();
+        final File zip = createZip(mFolder.newFile("archive.zip"), "first");
+        final String dest = mFolder.newFolder("dest").getAbsolutePath();
+
+        final ZipUnpackResult firstRun = ResUtils.unpackZipFileIncremental(dest, zip, PERMISSIONS);
+        assertEquals(3, firstRun.getExtractedCount());
+        assertTrue(firstRun.isSuccessful());
+
+        final ZipUnpackResult secondRun = ResUtils.unpackZipFileIncremental(dest, zip, PERMISSIONS);
+        assertEquals(0, secondRun.getExtractedCount());
+        assertEquals(3, secondRun.getSkippedCount());
+        assertEquals(0, secondRun.getBytesWritten());
+        assertEntries(dest, "first");
+    }
+
+    @Test
+    public void incrementalUnpackOfZipStreamShouldSkipUnchangedEntries() throws Exception {
+
+        mockStatics();
+        final File zip = createZip(mFolder.newFile("archive.zip"), "first");
+        final String dest = mFolder.newFolder("dest").getAbsolutePath();
+
+        final ZipUnpackResult firstRun = ResUtils.unpackZipFileIncremental(dest,
+                new ZipInputStream(new FileInputStream(zip)), PERMISSIONS);
+        assertEquals(3, firstRun.getExtractedCount());
+
+        final File large = new File(dest, "data/large.bin");
+        assertTrue(large.setLastModified(1000L));
+        final ZipUnpackResult secondRun = ResUtils.unpackZipFileIncremental(dest,
+                new ZipInputStream(new FileInputStream(zip)), PERMISSIONS);
+        assertEquals(0, secondRun.getExtractedCount());
+        assertEquals(3, secondRun.getSkippedCount());
+        assertEquals(1000L, large.lastModified());
+        assertEntries(dest, "first");
+    }
+
+    @Test
+    public void incrementalUnpackOfZipStreamShouldRewriteChangedEntries() throws Exception {
+
+        mockStatics();
+        final File zip = createZip(mFolder.newFile("archive.zip"), "first");
+        final String dest = mFolder.newFolder("dest").getAbsolutePath();
+        ResUtils.unpackZipFileIncremental(dest, new ZipInputStream(new FileInputStream(zip)), PERMISSIONS);
+
+        createZip(zip, "second, but longer");
+        final ZipUnpackResult changedRun = ResUtils.unpackZipFileIncremental(dest,
+                new ZipInputStream(new FileInputStream(zip)), PERMISSIONS);
+        assertEquals(1, changedRun.getExtractedCount());
+        assertEquals(2, changedRun.getSkippedCount());
+        assertEntries(dest, "second, but longer");
+
+        createZip(zip, "3rd");
+        ResUtils.unpackZipFileIncremental(dest, new ZipInputStream(new FileInputStream(zip)), PERMISSIONS);
+        assertEntries(dest, "3rd");
+    }
+
+    private static void mockStatics() {
+
+        PowerMockito.mockStatic(Debug.class);
+        PowerMockito.mockStatic(Uri.class);
+        PowerMockito.when(Uri.fromFile(any(File.class))).thenReturn(PowerMockito.mock(Uri.class));
+    }
+
+    /**
+     * Builds an archive with streamed, deflated entries, which are written with data descriptors.
+     */
+    private static File createZip(final File zip, final String text) throws IOException {
+
+        try (final ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+            out.putNextEntry(new ZipEntry("data/"));
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry("data/text.txt"));
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry("data/large.bin"));
+            out.write(largeContent());
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry("empty.txt"));
+            out.closeEntry();
+        }
+        return zip;
+    }
+
+    private static byte[] largeContent() {
+
+        final byte[] content = new byte[200 * 1024];
+        new Random(7).nextBytes(content);
+        return content;
+    }
+
+    private static void assertEntries(final String dest, final String text) throws IOException {
+
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8),
+                Files.readAllBytes(new File(dest, "data/text.txt").toPath()));
+        assertArrayEquals(largeContent(), Files.readAllBytes(new File(dest, "data/large.bin").toPath()));
+        assertEquals(0, new File(dest, "empty.txt").length());
+    }
+}
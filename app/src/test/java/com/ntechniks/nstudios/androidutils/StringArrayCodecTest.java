@@ -0,0 +1,131 @@
+package com.ntechniks.nstudios.androidutils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StringArrayCodecTest {
+
+    private final StringArrayCodec codec = StringArrayCodec.getDefault();
+
+    @Test
+    public void serializeShouldSkipNullAndEmptyStrings() {
+
+        final String[] content = {"First", null, "", "Second", "Third"};
+
+        assertEquals("First:Second:Third", codec.serialize(content));
+        assertEquals(18, codec.serializedLength(content));
+    }
+
+    @Test
+    public void serializeShouldAppendToWriter() throws IOException {
+
+        final StringWriter writer = new StringWriter();
+        writer.write("prefix=");
+        codec.serialize(new String[]{"a", "b"}, writer);
+
+        assertEquals("prefix=a:b", writer.toString());
+    }
+
+    @Test
+    public void serializeShouldNotWriteIntoTooSmallCharBuffer() {
+
+        final CharBuffer small = CharBuffer.allocate(4);
+        assertFalse(codec.serialize(new String[]{"abc", "def"}, small));
+        assertEquals(0, small.position());
+
+        final CharBuffer big = CharBuffer.allocate(16);
+        assertTrue(codec.serialize(new String[]{"abc", "def"}, big));
+        big.flip();
+        assertEquals("abc:def", big.toString());
+    }
+
+    @Test
+    public void deserializeShouldMatchStringSplit() {
+
+        final String[] samples = {"First:Second:Third", "a", "::a", "a::b", "a::", ":", "::", "a:b:"};
+        for (final String sample : samples) {
+            assertArrayEquals(sample, sample.split(":"), codec.deserialize(sample));
+        }
+    }
+
+    @Test
+    public void customDelimiterShouldRoundTrip() {
+
+        final StringArrayCodec pipeCodec = new StringArrayCodec('|');
+        final String[] content = {"x:1", "y:2"};
+
+        assertArrayEquals(content, pipeCodec.deserialize(pipeCodec.serialize(content)));
+    }
+
+    @Test
+    public void intArrayShouldRoundTrip() {
+
+        final int[] values = {100, 0, -7, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        final String serialized = codec.serialize(values);
+
+        assertEquals("100:0:-7:2147483647:-2147483648", serialized);
+        assertArrayEquals(values, codec.deserializeIntArray(serialized));
+    }
+
+    @Test
+    public void longArrayShouldRoundTrip() {
+
+        final long[] values = {1L, Long.MAX_VALUE, Long.MIN_VALUE, -1L};
+
+        assertArrayEquals(values, codec.deserializeLongArray(codec.serialize(values)));
+    }
+
+    @Test
+    public void deserializeIntArrayShouldMarkInvalidEntries() {
+
+        final int[] expected = {1, -1, -1, -1, -1, 5};
+
+        assertArrayEquals(expected, codec.deserializeIntArray("1::x:2147483648:-:5::"));
+        assertEquals(0, codec.deserializeIntArray(":::").length);
+    }
+
+    @Test
+    public void lengthPrefixedFormatShouldRoundTripAnyArray() {
+
+        final StringArrayCodec prefixedCodec =
+                new StringArrayCodec(':', StringArrayCodec.Format.LENGTH_PREFIXED);
+        final String[] content = {"First", "", null, "a:b", "::", "\u00e9\u20ac\ud83d\ude00"};
+        final String serialized = prefixedCodec.serialize(content);
+
+        assertEquals("5:First0:-1:3:a:b2:::4:\u00e9\u20ac\ud83d\ude00", serialized);
+        assertEquals(serialized.length(), prefixedCodec.serializedLength(content));
+        assertArrayEquals(content, prefixedCodec.deserialize(serialized));
+        assertEquals(0, prefixedCodec.deserialize("").length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void lengthPrefixedFormatShouldRejectTruncatedContent() {
+        new StringArrayCodec(':', StringArrayCodec.Format.LENGTH_PREFIXED).deserialize("5:Fir");
+    }
+
+    @Test
+    public void binaryFormShouldRoundTripAnyArray() {
+
+        final String[] content = {"First", "", null, "a:b", "\u00e9\u20ac\ud83d\ude00"};
+        final int length = codec.encodedLength(content);
+
+        assertFalse(codec.encode(content, ByteBuffer.allocate(length - 1)));
+
+        for (final ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate(length), ByteBuffer.allocateDirect(length)}) {
+            assertTrue(codec.encode(content, buffer));
+            assertEquals(length, buffer.position());
+            buffer.flip();
+            assertArrayEquals(content, codec.decode(buffer));
+            assertFalse(buffer.hasRemaining());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.ntechniks.nstudios.androidutils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TransliteratorTest {
+
+    @Test
+    public void germanRulesShouldMatchGermanLocaleTools() {
+
+        final Transliterator german = new Transliterator(Transliterator.RuleSet.GERMAN);
+        final String title = "Grüße aus Köln, ÄÖÜ";
+
+        assertEquals("Gruesse aus Koeln, AeOeUe", german.transliterate(title));
+        assertEquals(german.transliterate(title), GermanLocaleTools.filterString(title));
+    }
+
+    @Test
+    public void transliterateShouldReturnSameInstanceWhenNothingChanges() {
+
+        final Transliterator all = new Transliterator(Transliterator.RuleSet.GERMAN,
+                Transliterator.RuleSet.NORDIC, Transliterator.RuleSet.FRENCH, Transliterator.RuleSet.CZECH);
+        final String plain = "Plain ASCII title";
+
+        assertSame(plain, all.transliterate(plain));
+        assertFalse(all.needsTransliteration(plain));
+    }
+
+    @Test
+    public void laterRuleSetsShouldOverrideEarlierOnes() {
+
+        final String input = "Ü";
+
+        assertEquals("U", new Transliterator(Transliterator.RuleSet.GERMAN, Transliterator.RuleSet.FRENCH)
+                .transliterate(input));
+        assertEquals("Ue", new Transliterator(Transliterator.RuleSet.FRENCH, Transliterator.RuleSet.GERMAN)
+                .transliterate(input));
+    }
+
+    @Test
+    public void bulkTransliterationShouldKeepOrderAndNulls() throws IOException {
+
+        final Transliterator transliterator = new Transliterator(Transliterator.RuleSet.NORDIC,
+                Transliterator.RuleSet.CZECH, Transliterator.RuleSet.FRENCH);
+        final List<String> result = transliterator.transliterateAll(Arrays.asList("Ærø", null, "Dvořák", "Œuvre"));
+
+        assertEquals("Aeroe", result.get(0));
+        assertNull(result.get(1));
+        assertEquals("Dvorak", result.get(2));
+        assertEquals("Oeuvre", result.get(3));
+
+        final StringWriter writer = new StringWriter();
+        transliterator.transliterate("Šťastné Å", writer);
+        assertEquals("Stastne Aa", writer.toString());
+    }
+
+    @Test
+    public void parallelTransliterationShouldMatchSequentialOne() {
+
+        final Transliterator german = new Transliterator(Transliterator.RuleSet.GERMAN);
+        final String[] titles = new String[10 * Transliterator.PARALLEL_CHUNK_SIZE + 7];
+        final String[] expected = new String[titles.length];
+        for (int i = 0; i < titles.length; i++) {
+            titles[i] = (i % 10 == 0) ? null : "Größe " + (i % 100);
+            expected[i] = (titles[i] != null) ? german.transliterate(titles[i]) : null;
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertArrayEquals(expected, german.transliterateAll(titles, pool, false));
+
+            final String[] deduplicated = german.transliterateAll(titles, pool, true);
+            assertArrayEquals(expected, deduplicated);
+            assertSame(deduplicated[1], deduplicated[101]);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.ntechniks.nstudios.androidutils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(Debug.class)
+public class ZipUnpackManifestTest {
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    @Test
+    public void storedManifestShouldBeLoadedBack() throws IOException {
+
+        final File folder = mFolder.getRoot();
+        final ZipUnpackManifest manifest = new ZipUnpackManifest();
+        manifest.put("res/values.xml", 0xCAFEBABEL, 1024, 1577836800000L);
+        manifest.put("nested/dir/file with spaces\tand tab.txt", 7, 0, -1);
+        manifest.store(folder);
+
+        final ZipUnpackManifest loaded = ZipUnpackManifest.load(folder);
+
+        assertEquals(2, loaded.names().size());
+        assertTrue(loaded.get("res/values.xml").matches(0xCAFEBABEL, 1024, 1577836800000L));
+        assertTrue(loaded.get("nested/dir/file with spaces\tand tab.txt").matches(7, 0, -1));
+        assertFalse(new File(folder, ZipUnpackManifest.FILE_NAME + ".tmp").exists());
+    }
+
+    @Test
+    public void putShouldDropNamesWithLineBreaks() throws IOException {
+
+        final File folder = mFolder.getRoot();
+        final ZipUnpackManifest manifest = new ZipUnpackManifest();
+        manifest.put("first\nsecond", 1, 1, 1);
+        manifest.put("first\rsecond", 1, 1, 1);
+        manifest.put("valid", 2, 2, 2);
+        manifest.store(folder);
+
+        final ZipUnpackManifest loaded = ZipUnpackManifest.load(folder);
+
+        assertEquals(1, loaded.names().size());
+        assertTrue(loaded.contains("valid"));
+        assertFalse(loaded.contains("first"));
+        assertFalse(loaded.contains("second"));
+    }
+
+    @Test
+    public void loadShouldIgnoreManifestWithOtherHeader() throws IOException {
+
+        writeManifest("zip-unpack-manifest 2\n1\t2\t3\tname\n");
+
+        assertTrue(ZipUnpackManifest.load(mFolder.getRoot()).names().isEmpty());
+    }
+
+    @Test
+    public void loadShouldSkipLinesWithoutAllFields() throws IOException {
+
+        writeManifest("zip-unpack-manifest 1\n1\t2\tname\n4\t5\t6\tvalid\n");
+
+        final ZipUnpackManifest loaded = ZipUnpackManifest.load(mFolder.getRoot());
+
+        assertEquals(1, loaded.names().size());
+        assertTrue(loaded.get("valid").matches(4, 5, 6));
+    }
+
+    @Test
+    public void loadShouldDropAllRecordsOnBrokenNumber() throws IOException {
+
+        PowerMockito.mockStatic(Debug.class);
+        writeManifest("zip-unpack-manifest 1\n1\t2\t3\tfirst\nx\t5\t6\tsecond\n7\t8\t9\tthird\n");
+
+        assertTrue(ZipUnpackManifest.load(mFolder.getRoot()).names().isEmpty());
+    }
+
+    @Test
+    public void loadShouldReturnEmptyManifestWhenMissing() {
+
+        assertTrue(ZipUnpackManifest.load(mFolder.getRoot()).names().isEmpty());
+    }
+
+    private void writeManifest(final String content) throws IOException {
+
+        try (final Writer writer = new OutputStreamWriter(
+                new FileOutputStream(new File(mFolder.getRoot(), ZipUnpackManifest.FILE_NAME)), "UTF-8")) {
+            writer.write(content);
+        }
+    }
+}